@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.EmployeeManagementSystemApplication;
+import com.example.demo.index.AttendanceBitmapIndex;
+import com.example.demo.index.EmployeeSearchIndex;
+import com.example.demo.service.EmployeeStatsService;
+
+/**
+ * Boots the full application on a random port against an in-memory H2 database in
+ * MySQL mode (schema from the Flyway migrations) and seeds it over JDBC. Shared by
+ * the JMH search benchmark and the load test so both measure the same dataset.
+ */
+final class EmbeddedApp {
+
+    static final String[] DEPARTMENTS = { "Engineering", "Sales", "Marketing", "Finance", "HR", "Operations",
+            "Support" };
+    static final String SEED_PASSWORD = "welcome123";
+
+    private static final int SEED_BATCH = 5_000;
+
+    private EmbeddedApp() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--server.port=0",
+                "--app.sql-log.sample-rate=0",
+                "--spring.sql.init.mode=never",
+                "--spring.devtools.restart.enabled=false",
+                "--app.photos.dir=target/bench-photos",
+                // every client is localhost, so the per-IP login budget would cap the whole run
+                "--app.login.throttle.ip.capacity=1000000",
+                "--app.login.throttle.ip.refill-per-minute=100000000",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(EmployeeManagementSystemApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Inserts employees {@code employee1..employee<rows>}; every 1000th one is in
+     * Legal. With {@code withUsers} each also gets a USER login with
+     * {@link #SEED_PASSWORD}, stored as a legacy {@code {noop}} row that its first
+     * login upgrades to BCrypt. The in-memory indexes are rebuilt afterwards, as the
+     * bulk import does.
+     */
+    static void seed(ConfigurableApplicationContext context, int rows, boolean withUsers) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> employees = new ArrayList<>(SEED_BATCH);
+        List<Object[]> users = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= rows; i++) {
+            String department = i % 1000 == 0 ? "Legal" : DEPARTMENTS[i % DEPARTMENTS.length];
+            String username = "employee" + i;
+            String email = username + "@example.com";
+            employees.add(new Object[] { "Employee " + i, email, department, "Software Engineer", username });
+            if (withUsers) {
+                users.add(new Object[] { username, email, "{noop}" + SEED_PASSWORD });
+            }
+            if (employees.size() == SEED_BATCH || i == rows) {
+                jdbc.batchUpdate("INSERT INTO employee (name, email, department, company_role, username, "
+                        + "joined_date, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_DATE, CURRENT_TIMESTAMP)", employees);
+                if (!users.isEmpty()) {
+                    jdbc.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, 'USER')",
+                            users);
+                }
+                employees.clear();
+                users.clear();
+            }
+        }
+        context.getBean(EmployeeSearchIndex.class).rebuild();
+        context.getBean(AttendanceBitmapIndex.class).rebuild();
+        context.getBean(EmployeeStatsService.class).reconcile();
+    }
+}
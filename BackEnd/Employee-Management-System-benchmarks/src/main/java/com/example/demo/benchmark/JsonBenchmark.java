@@ -0,0 +1,126 @@
+package com.example.demo.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.demo.entity.Employee;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Jackson cost of the employee payloads. The photo is write-only on Employee, so it
+ * only costs on the way in (add / update bodies); serialization with a photo set
+ * shows that responses no longer carry it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    // ~150 KB image, about what the upload form produces for a phone photo
+    private static final int PHOTO_BYTES = 150 * 1024;
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    @State(Scope.Benchmark)
+    public static class EmployeeState {
+        @Param({ "false", "true" })
+        public boolean withPhoto;
+
+        Employee employee;
+        String payload;
+
+        @Setup
+        public void setUp() {
+            employee = employee(1, withPhoto);
+            Map<String, Object> body = new java.util.LinkedHashMap<>();
+            body.put("name", employee.getName());
+            body.put("email", employee.getEmail());
+            body.put("department", employee.getDepartment());
+            body.put("companyRole", employee.getCompanyRole());
+            body.put("salary", employee.getSalary());
+            if (withPhoto) {
+                body.put("photo", employee.getPhoto());
+            }
+            payload = MAPPER.writeValueAsString(body);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+        @Param({ "10", "100", "1000" })
+        public int pageSize;
+
+        Page<Employee> page;
+
+        @Setup
+        public void setUp() {
+            List<Employee> content = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                content.add(employee(i + 1, false));
+            }
+            page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000_000);
+        }
+    }
+
+    @Benchmark
+    public String serializeEmployee(EmployeeState state) {
+        return MAPPER.writeValueAsString(state.employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee(EmployeeState state) {
+        return MAPPER.readValue(state.payload, Employee.class);
+    }
+
+    @Benchmark
+    public String serializePage(PageState state) {
+        return MAPPER.writeValueAsString(state.page);
+    }
+
+    static Employee employee(long id, boolean withPhoto) {
+        Employee e = new Employee();
+        e.setId(id);
+        e.setName("Employee " + id);
+        e.setEmail("employee" + id + "@example.com");
+        e.setDepartment("Engineering");
+        e.setPhone("+91 98765 43210");
+        e.setAddress("221B Baker Street, London");
+        e.setMaritalStatus("Single");
+        e.setEducation("B.Tech Computer Science");
+        e.setCompanyRole("Software Engineer");
+        e.setSalary(85000.0);
+        e.setUsername("employee" + id);
+        e.setJoinedDate(LocalDate.of(2024, 1, 15));
+        e.setCreatedAt(LocalDate.of(2024, 1, 15).atStartOfDay());
+        if (withPhoto) {
+            byte[] bytes = new byte[PHOTO_BYTES];
+            new Random(id).nextBytes(bytes);
+            e.setPhoto("data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes));
+        }
+        return e;
+    }
+}
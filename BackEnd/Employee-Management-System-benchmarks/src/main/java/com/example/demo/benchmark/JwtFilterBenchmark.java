@@ -0,0 +1,82 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.demo.security.JwtFilter;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.security.VerifiedTokenCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One authenticated request through JwtFilter: header parsing, token verification
+ * and SecurityContext population. {@code cacheSize=0} disables the verified-token
+ * cache so every pass pays for the HMAC check and claims parsing. {@code revoked}
+ * preloads that many revoked token ids into the revocation list, which every
+ * request consults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({ "10000", "0" })
+    public long cacheSize;
+
+    @Param({ "0", "100000" })
+    public int revoked;
+
+    private JwtFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtBenchmark.newJwtUtil();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // no database here: the list is loaded directly instead of from revoked_token
+        TokenRevocationList revocations = new TokenRevocationList(null, registry, 0.01);
+        List<UUID> ids = new ArrayList<>(revoked);
+        for (int i = 0; i < revoked; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        revocations.load(ids);
+        filter = new JwtFilter(new VerifiedTokenCache(jwtUtil, registry, cacheSize), revocations);
+        authorization = "Bearer " + jwtUtil.issue("admin", "ADMIN").token();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.demo.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * End-to-end load test: boots the application on a random port over an embedded
+ * H2 database in MySQL mode, seeds {@code loadtest.employees} employees (each with a
+ * USER login), then runs {@code loadtest.threads} closed-loop clients through a
+ * weighted mix of the real HTTP endpoints. Latency is recorded per operation in
+ * HdrHistograms; a summary table is printed and each operation's full percentile
+ * distribution is written to {@code <loadtest.output>/<op>.hgrm}.
+ *
+ * <p>All settings are system properties:
+ * <ul>
+ * <li>{@code loadtest.threads} (16), {@code loadtest.employees} (10000)</li>
+ * <li>{@code loadtest.warmup} (10s) and {@code loadtest.duration} (60s), as 90s / 2m / PT1M</li>
+ * <li>{@code loadtest.mix}, e.g. {@code list=35,details=25,search=10,login=5,add=10,update=10,delete=5}</li>
+ * <li>{@code loadtest.output} (target/loadtest)</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    enum Op {
+        LOGIN(5), LIST(35), DETAILS(25), SEARCH(10), ADD(10), UPDATE(10), DELETE(5);
+
+        final int defaultWeight;
+
+        Op(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String[] SORTS = { "name", "department", "joinedDate", "id" };
+    private static final String[] SEARCHES = { "employee 12", "sales", "engineering", "legal", "99" };
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final JsonMapper json = JsonMapper.builder().build();
+    private final String baseUrl;
+    private final int employees;
+    private final Op[] schedule;
+    private final AtomicLong added = new AtomicLong();
+    private String adminToken;
+    private String userToken;
+
+    private LoadTest(String baseUrl, int employees, Map<Op, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.employees = employees;
+        List<Op> slots = new ArrayList<>();
+        mix.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(op);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+        }
+        this.schedule = slots.toArray(Op[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        Result result = run(settings, "loadtest");
+        result.report(System.out);
+        result.write(settings.output());
+        System.out.println("Percentile distributions written to " + settings.output().toAbsolutePath());
+    }
+
+    record Settings(int threads, int employees, Duration warmup, Duration duration, Map<Op, Integer> mix,
+            Path output) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadtest.threads", 16),
+                    Integer.getInteger("loadtest.employees", 10_000),
+                    parseDuration(System.getProperty("loadtest.warmup", "10s")),
+                    parseDuration(System.getProperty("loadtest.duration", "60s")),
+                    parseMix(System.getProperty("loadtest.mix", "")),
+                    Path.of(System.getProperty("loadtest.output", "target/loadtest")));
+        }
+    }
+
+    /** Boots a fresh application with {@code appArgs}, seeds it, warms up, and measures one run. */
+    static Result run(Settings settings, String database, String... appArgs) throws Exception {
+        System.out.printf("Booting application and seeding %,d employees...%n", settings.employees());
+        ConfigurableApplicationContext context = EmbeddedApp.start(database, appArgs);
+        try {
+            EmbeddedApp.seed(context, settings.employees(), true);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadTest test = new LoadTest("http://localhost:" + port, settings.employees(), settings.mix());
+            test.adminToken = test.token("admin", "admin123");
+            test.userToken = test.token("employee1", EmbeddedApp.SEED_PASSWORD);
+
+            System.out.printf("Warmup %ss, measuring %ss with %d threads, mix %s%n", settings.warmup().toSeconds(),
+                    settings.duration().toSeconds(), settings.threads(), settings.mix());
+            test.run(settings.threads(), settings.warmup());
+            return test.run(settings.threads(), settings.duration());
+        } finally {
+            context.close();
+        }
+    }
+
+    record Result(int threads, int employees, Map<Op, Histogram> latencies, Map<Op, long[]> errors,
+            long elapsedNanos) {
+
+        void report(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            long total = 0;
+            out.printf("%nthreads=%d employees=%d elapsed=%.1fs%n", threads, employees, seconds);
+            out.printf("%-8s %9s %9s %7s %9s %9s %9s %9s%n", "op", "count", "req/s", "errors", "p50 ms",
+                    "p95 ms", "p99 ms", "max ms");
+            for (Map.Entry<Op, Histogram> e : latencies.entrySet()) {
+                Histogram h = e.getValue();
+                total += h.getTotalCount();
+                out.printf("%-8s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n", e.getKey().label(), h.getTotalCount(),
+                        h.getTotalCount() / seconds, errors.get(e.getKey())[0], ms(h.getValueAtPercentile(50)),
+                        ms(h.getValueAtPercentile(95)), ms(h.getValueAtPercentile(99)), ms(h.getMaxValue()));
+            }
+            out.printf("%-8s %9d %9.1f%n", "total", total, total / seconds);
+        }
+
+        void write(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            for (Map.Entry<Op, Histogram> e : latencies.entrySet()) {
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(dir.resolve(e.getKey().label() + ".hgrm")))) {
+                    // recorded in microseconds, reported in milliseconds
+                    e.getValue().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")))) {
+                report(out);
+            }
+        }
+
+        private static double ms(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    private Result run(int threads, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(deadline);
+            running[i] = new Thread(workers[i], "loadtest-" + i);
+            running[i].start();
+        }
+        for (Thread t : running) {
+            t.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<Op, Histogram> latencies = new EnumMap<>(Op.class);
+        Map<Op, long[]> errors = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) {
+            Histogram merged = new Histogram(3);
+            long[] failed = new long[1];
+            for (Worker w : workers) {
+                merged.add(w.latencies[op.ordinal()]);
+                failed[0] += w.errors[op.ordinal()];
+            }
+            if (merged.getTotalCount() > 0 || failed[0] > 0) {
+                latencies.put(op, merged);
+                errors.put(op, failed);
+            }
+        }
+        return new Result(threads, employees, latencies, errors, elapsed);
+    }
+
+    private final class Worker implements Runnable {
+        final Histogram[] latencies = new Histogram[Op.values().length];
+        final long[] errors = new long[Op.values().length];
+        // employees this worker created; deletes only remove these so the seeded set stays intact
+        private final ArrayDeque<Long> created = new ArrayDeque<>();
+        private final long deadline;
+
+        Worker(long deadline) {
+            this.deadline = deadline;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new Histogram(3);
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Op op = schedule[random.nextInt(schedule.length)];
+                if (op == Op.DELETE && created.isEmpty()) {
+                    op = Op.ADD;
+                }
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(op, random);
+                } catch (IOException | RuntimeException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                latencies[op.ordinal()].recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                if (!ok) {
+                    errors[op.ordinal()]++;
+                }
+            }
+        }
+
+        private boolean execute(Op op, ThreadLocalRandom random) throws IOException, InterruptedException {
+            switch (op) {
+                case LOGIN: {
+                    String body = "{\"username\":\"employee" + seededId(random) + "\",\"password\":\""
+                            + EmbeddedApp.SEED_PASSWORD + "\"}";
+                    return send(post("/api/auth/login", body, null)).statusCode() == 200;
+                }
+                case LIST: {
+                    String path = "/api/employees?size=20&page=" + random.nextInt(Math.max(1, employees / 20))
+                            + "&sort=" + SORTS[random.nextInt(SORTS.length)] + (random.nextBoolean() ? ",asc" : ",desc");
+                    if (random.nextInt(10) < 3) {
+                        path += "&search=" + encode(SEARCHES[random.nextInt(SEARCHES.length)]);
+                    }
+                    return send(get(path)).statusCode() == 200;
+                }
+                case DETAILS:
+                    return send(get("/api/employees/details/" + seededId(random))).statusCode() == 200;
+                case SEARCH: {
+                    String keyword = random.nextBoolean() ? String.valueOf(seededId(random))
+                            : SEARCHES[random.nextInt(SEARCHES.length)];
+                    return send(get("/api/employees/search?keyword=" + encode(keyword))).statusCode() == 200;
+                }
+                case ADD: {
+                    String username = "loadtest" + added.incrementAndGet();
+                    String body = "{\"name\":\"Load Test " + username + "\",\"email\":\"" + username
+                            + "@example.com\",\"department\":\"" + department(random) + "\",\"companyRole\":\"Tester\","
+                            + "\"username\":\"" + username + "\"}";
+                    HttpResponse<String> response = send(post("/api/employees", body, adminToken));
+                    if (response.statusCode() != 200) {
+                        return false;
+                    }
+                    JsonNode saved = json.readTree(response.body());
+                    created.push(saved.get("id").asLong());
+                    return true;
+                }
+                case UPDATE: {
+                    // the edit screen's flow: load the record for its ETag, then save with If-Match
+                    int target = seededId(random);
+                    HttpResponse<String> current = send(get("/api/employees/" + target));
+                    String etag = current.headers().firstValue("ETag").orElse(null);
+                    if (current.statusCode() != 200 || etag == null) {
+                        return false;
+                    }
+                    String body = "{\"name\":\"Employee " + target + "\",\"email\":\"employee" + target
+                            + "@example.com\",\"department\":\"" + department(random) + "\"}";
+                    int status = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + target))
+                            .timeout(TIMEOUT)
+                            .header("Authorization", "Bearer " + adminToken)
+                            .header("Content-Type", "application/json")
+                            .header("If-Match", etag)
+                            .PUT(HttpRequest.BodyPublishers.ofString(body))
+                            .build()).statusCode();
+                    // 412 is another client winning the race, which the API is meant to report
+                    return status == 200 || status == 412;
+                }
+                case DELETE:
+                    return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + created.pop()))
+                            .timeout(TIMEOUT)
+                            .header("Authorization", "Bearer " + adminToken)
+                            .DELETE()
+                            .build()).statusCode() == 200;
+                default:
+                    throw new IllegalStateException("Unknown operation " + op);
+            }
+        }
+
+        private int seededId(ThreadLocalRandom random) {
+            return 1 + random.nextInt(employees);
+        }
+
+        private String department(ThreadLocalRandom random) {
+            return EmbeddedApp.DEPARTMENTS[random.nextInt(EmbeddedApp.DEPARTMENTS.length)];
+        }
+    }
+
+    private String token(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}", null));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + username + " failed: " + response.statusCode());
+        }
+        return json.readTree(response.body()).get("token").asString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + userToken)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static Duration parseDuration(String value) {
+        String v = value.trim().toUpperCase(Locale.ROOT);
+        if (v.chars().allMatch(Character::isDigit)) {
+            return Duration.ofSeconds(Long.parseLong(v));
+        }
+        return Duration.parse(v.startsWith("P") ? v : "PT" + v);
+    }
+
+    static Map<Op, Integer> parseMix(String value) {
+        Map<Op, Integer> mix = new EnumMap<>(Op.class);
+        if (value.isBlank()) {
+            for (Op op : Op.values()) {
+                mix.put(op, op.defaultWeight);
+            }
+            return mix;
+        }
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix entries look like list=35, got: " + part);
+            }
+            mix.put(Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
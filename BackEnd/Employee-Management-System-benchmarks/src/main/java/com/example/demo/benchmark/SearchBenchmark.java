@@ -0,0 +1,72 @@
+package com.example.demo.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.service.EmployeeService;
+
+/**
+ * EmployeeService.searchByIdNameOrDepartment on the real application context backed
+ * by an in-memory H2 database in MySQL mode, migrated by Flyway and seeded with
+ * {@code rows} employees. The three keywords hit the three branches: numeric id,
+ * a name match, and a name miss that falls through to the department search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService service;
+    private String idKeyword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedApp.start("bench" + rows);
+        EmbeddedApp.seed(context, rows, false);
+        service = context.getBean(EmployeeService.class);
+        idKeyword = String.valueOf(rows / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Employee> byId() {
+        return service.searchByIdNameOrDepartment(idKeyword);
+    }
+
+    @Benchmark
+    public List<Employee> byName() {
+        return service.searchByIdNameOrDepartment("employee 4242");
+    }
+
+    @Benchmark
+    public List<Employee> byDepartment() {
+        return service.searchByIdNameOrDepartment("legal");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.benchmark;
+
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Runs the {@link LoadTest} mix twice on fresh application instances, first with
+ * Tomcat, the task executor and the scheduler on platform threads
+ * ({@code spring.threads.virtual.enabled=false}), then on virtual threads, and prints
+ * throughput and p99 side by side. Use a client thread count well above Tomcat's
+ * 200 worker threads so the platform run actually queues. Both runs use the same
+ * connection pool size ({@code threading.pool-size}, default 50), so the pool is
+ * the same bottleneck in each.
+ *
+ * <p>Takes the same {@code loadtest.*} system properties as the load test. Each run's
+ * histograms are written to {@code <loadtest.output>/platform} and {@code /virtual}.
+ */
+public final class ThreadingComparison {
+
+    private ThreadingComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need JDK 21 or newer, running on " + Runtime.version());
+        }
+        LoadTest.Settings settings = LoadTest.Settings.fromSystemProperties();
+        String pool = "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("threading.pool-size", 50);
+
+        LoadTest.Result platform = LoadTest.run(settings, "platform", pool, "--spring.threads.virtual.enabled=false");
+        platform.write(settings.output().resolve("platform"));
+        LoadTest.Result virtual = LoadTest.run(settings, "virtual", pool, "--spring.threads.virtual.enabled=true");
+        virtual.write(settings.output().resolve("virtual"));
+
+        System.out.printf("%nthreads=%d employees=%d%n", settings.threads(), settings.employees());
+        System.out.printf("%-8s %13s %13s %14s %14s %15s %15s%n", "op", "platform req/s", "virtual req/s",
+                "platform p99", "virtual p99", "platform errors", "virtual errors");
+        for (Map.Entry<LoadTest.Op, Histogram> e : platform.latencies().entrySet()) {
+            LoadTest.Op op = e.getKey();
+            Histogram p = e.getValue();
+            Histogram v = virtual.latencies().getOrDefault(op, new Histogram(3));
+            long[] none = new long[1];
+            System.out.printf("%-8s %13.1f %13.1f %11.2f ms %11.2f ms %15d %15d%n", op.label(),
+                    perSecond(p, platform), perSecond(v, virtual), p.getValueAtPercentile(99) / 1000.0,
+                    v.getValueAtPercentile(99) / 1000.0, platform.errors().getOrDefault(op, none)[0],
+                    virtual.errors().getOrDefault(op, none)[0]);
+        }
+        System.out.println("Percentile distributions written to " + settings.output().toAbsolutePath());
+    }
+
+    private static double perSecond(Histogram histogram, LoadTest.Result result) {
+        return histogram.getTotalCount() / (result.elapsedNanos() / 1e9);
+    }
+}
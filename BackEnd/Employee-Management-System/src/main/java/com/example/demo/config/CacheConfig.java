@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Local Caffeine caches for single-record lookups. Every cache is bounded and
+ * expires after write, so a missed invalidation heals within the TTL. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics tagged with the cache name.
+ */
+@Configuration
+// Outside @Transactional, so a cache hit never opens a transaction or takes a connection
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String EMPLOYEES_BY_USERNAME = "employeesByUsername";
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry registry,
+            @Value("${app.cache.employees.max-size:10000}") long employeeSize,
+            @Value("${app.cache.employees.ttl:10m}") Duration employeeTtl,
+            @Value("${app.cache.users.max-size:10000}") long userSize,
+            @Value("${app.cache.users.ttl:10m}") Duration userTtl) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        // only the caches registered here exist; a typo in a cache name fails fast
+        manager.setCacheNames(List.of());
+        register(manager, registry, EMPLOYEES, employeeSize, employeeTtl);
+        register(manager, registry, EMPLOYEES_BY_USERNAME, employeeSize, employeeTtl);
+        register(manager, registry, USERS, userSize, userTtl);
+        // puts and evictions inside a transaction are applied after commit
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+
+    private static void register(CaffeineCacheManager manager, MeterRegistry registry, String name, long maxSize,
+            Duration ttl) {
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        manager.registerCustomCache(name, cache);
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+}
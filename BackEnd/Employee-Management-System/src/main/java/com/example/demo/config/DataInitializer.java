@@ -2,41 +2,42 @@ package com.example.demo.config;
 
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Override
     public void run(String... args) throws Exception {
         String adminUsername = "admin";
         String adminEmail = "saurabhav2307586@gmail.com";
 
-        System.out.println("--- DataInitializer: Checking Admin User ---");
-
         userRepository.findByUsername(adminUsername).ifPresentOrElse(
                 user -> {
-                    System.out.println("Admin user found. Updating email...");
-                    user.setEmail(adminEmail);
-                    userRepository.save(user);
-                    System.out.println("Admin email updated to: " + adminEmail);
+                    userRepository.updateEmail(adminUsername, adminEmail);
+                    log.info("Admin user found, email set to {}", adminEmail);
                 },
                 () -> {
-                    System.out.println("Admin user not found. Creating...");
                     User newUser = new User();
                     newUser.setUsername(adminUsername);
-                    newUser.setPassword("admin123");
+                    newUser.setPassword(passwordEncoder.encode("admin123"));
                     newUser.setEmail(adminEmail);
                     newUser.setRole("ADMIN");
                     userRepository.save(newUser);
-                    System.out.println("Admin user created with email: " + adminEmail);
+                    log.info("Admin user created with email {}", adminEmail);
                 });
-
-        System.out.println("--- DataInitializer: Complete ---");
     }
 }
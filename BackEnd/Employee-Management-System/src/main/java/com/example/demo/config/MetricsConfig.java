@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.metrics.RepositoryRowMetrics;
+import com.example.demo.metrics.SqlStatementInspector;
+
+/**
+ * Instrumentation that Boot does not provide out of the box: rows per repository call
+ * and the statement inspector behind the per-request SQL counts and the sampled SQL
+ * log. Request timers ({@code http.server.requests}), repository timers, Hibernate
+ * statistics and Hikari pool gauges come from auto-configuration and are all scraped
+ * from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static RepositoryRowMetrics repositoryRowMetrics(ObjectProvider<MeterRegistry> registry) {
+        return new RepositoryRowMetrics(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(
+            @Value("${app.sql-log.sample-rate:0.0}") double sampleRate) {
+        // an inspector set explicitly in spring.jpa.properties wins
+        return properties -> properties.putIfAbsent("hibernate.session_factory.statement_inspector",
+                new SqlStatementInspector(sampleRate));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import com.example.demo.service.PhotoStorageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-way migration of legacy rows that still carry the Base64 photo in the
+ * {@code employee.photo} LONGTEXT column. Each blob is moved into the photo store
+ * and the column is cleared, a small batch at a time so large photos never pile up
+ * in memory. Safe to run on every startup; it is a no-op once the column is empty
+ * or absent.
+ */
+@Component
+public class PhotoMigrationRunner implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoMigrationRunner.class);
+    private static final int BATCH_SIZE = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStorageService photoStorage;
+
+    public PhotoMigrationRunner(JdbcTemplate jdbcTemplate, PhotoStorageService photoStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.photoStorage = photoStorage;
+    }
+
+    private record LegacyPhoto(long id, String photo) {
+    }
+
+    // Schemas that never had the Base64 column have nothing to migrate
+    private boolean hasLegacyColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), "employee",
+                    null)) {
+                while (columns.next()) {
+                    if ("photo".equalsIgnoreCase(columns.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+        long lastId = 0;
+        int migrated = 0;
+        int failed = 0;
+        try {
+            while (true) {
+                List<LegacyPhoto> batch = jdbcTemplate.query(
+                        "SELECT id, photo FROM employee WHERE id > ? AND photo IS NOT NULL AND photo_ref IS NULL "
+                                + "ORDER BY id LIMIT " + BATCH_SIZE,
+                        (rs, i) -> new LegacyPhoto(rs.getLong("id"), rs.getString("photo")),
+                        lastId);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> updates = new ArrayList<>();
+                for (LegacyPhoto row : batch) {
+                    lastId = row.id();
+                    if (row.photo().isBlank()) {
+                        updates.add(new Object[] { null, null, row.id() });
+                        continue;
+                    }
+                    try {
+                        PhotoStorageService.StoredPhoto stored = photoStorage.storeDataUrl(row.photo());
+                        updates.add(new Object[] { stored.hash(), stored.contentType(), row.id() });
+                        migrated++;
+                    } catch (Exception e) {
+                        // leave the row untouched so the data is not lost
+                        log.warn("Could not migrate photo of employee {}: {}", row.id(), e.getMessage());
+                        failed++;
+                    }
+                }
+                jdbcTemplate.batchUpdate(
+                        "UPDATE employee SET photo_ref = ?, photo_content_type = ?, photo = NULL, version = version + 1, "
+                                + "updated_at = CURRENT_TIMESTAMP(6) WHERE id = ?",
+                        updates);
+            }
+        } catch (DataAccessException e) {
+            // Rows already moved stay moved; the rest are picked up on the next startup
+            log.warn("Legacy photo migration stopped after {} photos, {} failed", migrated, failed, e);
+            return;
+        }
+        if (migrated > 0 || failed > 0) {
+            log.info("Legacy photo migration finished: {} migrated, {} failed", migrated, failed);
+        }
+    }
+}
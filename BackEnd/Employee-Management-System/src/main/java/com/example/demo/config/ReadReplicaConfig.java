@@ -0,0 +1,92 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, active once {@code app.datasource.replicas} lists at least one. The
+ * primary pool is built from {@code spring.datasource} as Boot would; each replica gets
+ * the same {@code spring.datasource.hikari} settings, read-only connections, and a
+ * short connection timeout so a dead replica fails over quickly. Without replicas Boot's
+ * own single DataSource is used unchanged.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("app.datasource.replicas[0].url")
+public class ReadReplicaConfig {
+
+    public record ReplicaProperties(String url, String username, String password) {
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties, Environment environment, MeterRegistry registry,
+            @Value("${app.datasource.read-your-writes:2s}") Duration readYourWrites,
+            @Value("${app.datasource.replica-connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${app.datasource.shared-tables:employee,users}") String[] sharedTables) {
+        Binder binder = Binder.get(environment);
+        List<ReplicaProperties> specs = binder
+                .bind("app.datasource.replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < specs.size(); i++) {
+            ReplicaProperties spec = specs.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(spec.url())
+                    .username(spec.username() != null ? spec.username() : properties.determineUsername())
+                    .password(spec.password() != null ? spec.password() : properties.determinePassword())
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Start even when a replica is down; the health check brings it in later
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(registry);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, readYourWrites,
+                Arrays.stream(sharedTables).map(table -> table.trim().toLowerCase(Locale.ROOT)).collect(Collectors.toSet()),
+                registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    static ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.demo.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hands out primary connections, except inside a read-only service method
+ * ({@link ReplicaReadAspect}) where it takes the next healthy replica, round robin.
+ * Sits behind a {@code LazyConnectionDataSourceProxy}, so the choice is made at the
+ * first statement, once the transaction's read-only flag is known.
+ *
+ * <p>Reads stay on the primary for {@code app.datasource.read-your-writes} after a
+ * write, so a replica that has not caught up is never asked. A write is a statement on
+ * a primary connection that changed rows, in a transaction that committed; the window
+ * runs from the commit:
+ * <ul>
+ * <li>for the same user, after any write by that user on this node;</li>
+ * <li>for everyone, after a write on this node to one of the
+ * {@code app.datasource.shared-tables}, when the method fills a shared cache
+ * ({@code @Cacheable}) or runs without an authenticated user such as login. A stale
+ * row in a shared cache would be served to everyone until it expires. Background jobs
+ * such as the mail outbox touch other tables and do not hold anyone's reads.</li>
+ * </ul>
+ *
+ * <p>A replica that fails to hand out a connection is skipped until the scheduled
+ * check finds it valid again. When none is healthy, reads go to the primary.
+ */
+public class ReadWriteRoutingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    enum Scope {
+        // read-your-writes per user
+        USER,
+        // read-your-writes across all users: the result is shared
+        SHARED
+    }
+
+    // Set by ReplicaReadAspect for the duration of a read-only service method
+    private static final ThreadLocal<Scope> REPLICA_READ = new ThreadLocal<>();
+
+    private static final Pattern WRITE = Pattern.compile(
+            "^\\s*(?:insert\\s+(?:ignore\\s+)?into|replace\\s+into|merge\\s+into|update|delete\\s+from)\\s+[`\"]?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    static final class Replica {
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final long windowNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Set<String> sharedTables;
+    private final AtomicLong lastSharedWrite;
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter heldOnPrimary;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+            Duration readYourWrites, Set<String> sharedTables, MeterRegistry registry) {
+        super(primary);
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.windowNanos = readYourWrites.toNanos();
+        this.sharedTables = sharedTables;
+        this.lastSharedWrite = new AtomicLong(System.nanoTime() - windowNanos);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .build();
+        this.toPrimary = Counter.builder("datasource.routed").tag("target", "primary").register(registry);
+        this.toReplica = Counter.builder("datasource.routed").tag("target", "replica").register(registry);
+        this.heldOnPrimary = Counter.builder("datasource.read-your-writes.held").register(registry);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.dataSource.getPoolName())
+                    .register(registry);
+        }
+    }
+
+    /** Allows replica reads on this thread until {@link #exitReplicaRead}; returns the outer scope. */
+    static Scope enterReplicaRead(Scope scope) {
+        Scope outer = REPLICA_READ.get();
+        // a shared outer read stays shared: whatever it calls feeds the shared result
+        REPLICA_READ.set(outer == Scope.SHARED ? outer : scope);
+        return outer;
+    }
+
+    static void exitReplicaRead(Scope outer) {
+        if (outer == null) {
+            REPLICA_READ.remove();
+        } else {
+            REPLICA_READ.set(outer);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Anything not declared read-only may write; what it actually writes is recorded
+            toPrimary.increment();
+            return tracking(obtainTargetDataSource().getConnection());
+        }
+        Scope scope = REPLICA_READ.get();
+        if (scope == null || replicas.isEmpty()) {
+            toPrimary.increment();
+            return obtainTargetDataSource().getConnection();
+        }
+        if (withinWriteWindow(scope)) {
+            heldOnPrimary.increment();
+            toPrimary.increment();
+            return obtainTargetDataSource().getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                toReplica.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        toPrimary.increment();
+        return obtainTargetDataSource().getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(2);
+            } catch (SQLException e) {
+                valid = false;
+            }
+            if (valid && !replica.healthy) {
+                log.info("Replica {} is back; routing reads to it again", replica.dataSource.getPoolName());
+            } else if (!valid && replica.healthy) {
+                log.warn("Replica {} failed its health check; reads fail over", replica.dataSource.getPoolName());
+            }
+            replica.healthy = valid;
+        }
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} refused a connection; reads fail over: {}", replica.dataSource.getPoolName(),
+                    e.getMessage());
+        }
+    }
+
+    private boolean withinWriteWindow(Scope scope) {
+        String user = currentUser();
+        if (scope == Scope.SHARED || user == null) {
+            return System.nanoTime() - lastSharedWrite.get() < windowNanos;
+        }
+        return recentWriters.getIfPresent(user) != null;
+    }
+
+    // Watches the statements made on a primary connection for ones that change rows
+    private Connection tracking(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getReturnType().isInterface()
+                            && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return tracking(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object tracking(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Object result = invoke(statement, method, args);
+                    String name = method.getName();
+                    if (name.startsWith("execute") && !name.equals("executeQuery") && changedRows(statement, result)) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        recordWrite(sql);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static boolean changedRows(Statement statement, Object result) throws SQLException {
+        if (result instanceof Boolean hasResultSet) {
+            return !hasResultSet && statement.getUpdateCount() > 0;
+        }
+        if (result instanceof Number count) {
+            return count.longValue() > 0;
+        }
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    return true;
+                }
+            }
+        }
+        if (result instanceof long[] counts) {
+            for (long count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void recordWrite(String sql) {
+        // A statement whose table can't be told apart is assumed to feed the shared caches
+        Matcher matcher = WRITE.matcher(sql != null ? sql : "");
+        boolean shared = !matcher.find() || sharedTables.contains(matcher.group(1).toLowerCase(Locale.ROOT));
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // auto-commit: already committed
+            touch(user, shared);
+            return;
+        }
+        // One recorder per transaction; the window starts when it commits, and a rollback wrote nothing
+        WriteRecorder recorder = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WriteRecorder candidate && candidate.owner() == this) {
+                recorder = candidate;
+            }
+        }
+        if (recorder == null) {
+            recorder = new WriteRecorder();
+            TransactionSynchronizationManager.registerSynchronization(recorder);
+        }
+        recorder.shared |= shared;
+        if (recorder.user == null) {
+            recorder.user = user;
+        }
+    }
+
+    private void touch(String user, boolean shared) {
+        if (shared) {
+            lastSharedWrite.set(System.nanoTime());
+        }
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    private final class WriteRecorder implements TransactionSynchronization {
+        String user;
+        boolean shared;
+
+        ReadWriteRoutingDataSource owner() {
+            return ReadWriteRoutingDataSource.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                touch(user, shared);
+            }
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lets {@code @Transactional(readOnly = true)} methods of the service layer read from a
+ * replica. Only methods declared read-only here qualify, not Spring Data's read-only
+ * repository defaults, so a service that loads an entity to update it keeps reading
+ * the primary.
+ */
+@Aspect
+class ReplicaReadAspect {
+
+    @Around("within(com.example.demo.service..*) && @annotation(transactional)")
+    public Object route(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ReadWriteRoutingDataSource.Scope scope = AnnotatedElementUtils.hasAnnotation(method, Cacheable.class)
+                ? ReadWriteRoutingDataSource.Scope.SHARED
+                : ReadWriteRoutingDataSource.Scope.USER;
+        ReadWriteRoutingDataSource.Scope outer = ReadWriteRoutingDataSource.enterReplicaRead(scope);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.exitReplicaRead(outer);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+/**
+ * Forward-only queries whose rows are read as they arrive instead of being buffered
+ * whole, for the few statements that walk an entire table. MySQL Connector/J buffers
+ * every result unless told otherwise, and its cursor fetch can only be switched on for
+ * a whole connection; a fetch size of {@link Integer#MIN_VALUE} is its per-statement
+ * switch to streaming. Other drivers, such as H2 in tests, get the fetch size as given.
+ * Use them with a JdbcTemplate that sets no fetch size of its own.
+ */
+public final class StreamingStatements {
+
+    private StreamingStatements() {
+    }
+
+    public static PreparedStatementCreator of(String sql, int fetchSize, Object... params) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            new ArgumentPreparedStatementSetter(params).setValues(statement);
+            return statement;
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.controller;
+
+import com.example.demo.index.AttendanceBitmapIndex;
+import com.example.demo.index.EmployeeSearchIndex;
+import com.example.demo.service.RefreshTokenService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminController {
+
+    private final EmployeeSearchIndex searchIndex;
+    private final AttendanceBitmapIndex attendanceIndex;
+    private final RefreshTokenService refreshTokens;
+
+    public AdminController(EmployeeSearchIndex searchIndex, AttendanceBitmapIndex attendanceIndex,
+            RefreshTokenService refreshTokens) {
+        this.searchIndex = searchIndex;
+        this.attendanceIndex = attendanceIndex;
+        this.refreshTokens = refreshTokens;
+    }
+
+    @GetMapping("/search-index")
+    public EmployeeSearchIndex.Stats searchIndexStats() {
+        return searchIndex.stats();
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public EmployeeSearchIndex.Stats rebuildSearchIndex() {
+        return searchIndex.rebuild();
+    }
+
+    @GetMapping("/attendance-index")
+    public AttendanceBitmapIndex.Stats attendanceIndexStats() {
+        return attendanceIndex.stats();
+    }
+
+    @PostMapping("/attendance-index/rebuild")
+    public AttendanceBitmapIndex.Stats rebuildAttendanceIndex() {
+        return attendanceIndex.rebuild();
+    }
+
+    // Signs the user out everywhere: refresh tokens stop working and live access tokens are rejected
+    @PostMapping("/users/{username}/revoke-tokens")
+    public Map<String, Integer> revokeTokens(@PathVariable String username) {
+        return Map.of("sessionsRevoked", refreshTokens.revokeUser(username));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.dto.AttendanceSummaryDTO;
+import com.example.demo.dto.BulkAttendanceRequest;
+import com.example.demo.dto.DepartmentAttendanceDTO;
+import com.example.demo.service.AttendanceService;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/attendance")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AttendanceController {
+
+    private final AttendanceService service;
+
+    public AttendanceController(AttendanceService service) {
+        this.service = service;
+    }
+
+    // ✅ MARK ONE: { employeeId, date, status } — re-marking a day overwrites it
+    @PutMapping
+    public ResponseEntity<?> mark(@RequestBody AttendanceDTO request) {
+        try {
+            return ResponseEntity.ok(service.mark(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ MARK DEPARTMENT: { department, date, status }
+    @PutMapping("/department")
+    public ResponseEntity<?> markDepartment(@RequestBody BulkAttendanceRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("rowsAffected", service.markDepartment(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/employee/{employeeId}")
+    public ResponseEntity<?> getRecords(
+            @PathVariable Long employeeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(service.getRecords(employeeId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Range stats from the bitmap index; defaults to the last 90 days
+    @GetMapping("/employee/{employeeId}/stats")
+    public ResponseEntity<?> getEmployeeStats(
+            @PathVariable Long employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        try {
+            return ResponseEntity.ok(service.getEmployeeStats(employeeId, from != null ? from : end.minusDays(89), end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/department/stats")
+    public ResponseEntity<?> getDepartmentStats(
+            @RequestParam String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        try {
+            return ResponseEntity.ok(service.getDepartmentStats(department, from != null ? from : end.minusDays(89), end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
+        }
+    }
+
+    // ?month=2026-10[&department=IT]
+    @GetMapping("/summary/employees")
+    public List<AttendanceSummaryDTO> summarizeByEmployee(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) String department) {
+        return service.summarizeByEmployee(month, department);
+    }
+
+    @GetMapping("/summary/departments")
+    public List<DepartmentAttendanceDTO> summarizeByDepartment(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return service.summarizeByDepartment(month);
+    }
+}
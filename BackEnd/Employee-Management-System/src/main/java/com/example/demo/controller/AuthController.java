@@ -1,11 +1,18 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.LoginRequest;
+import com.example.demo.security.LoginThrottle;
 import com.example.demo.service.AuthService;
+import com.example.demo.service.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -13,20 +20,60 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle throttle;
+    private final RefreshTokenService refreshTokens;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginThrottle throttle, RefreshTokenService refreshTokens) {
         this.authService = authService;
+        this.throttle = throttle;
+        this.refreshTokens = refreshTokens;
     }
 
+    // ✅ LOGIN: throttled per IP and username before any lookup; the request thread is
+    // released while the password is checked on the hasher pool
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request, HttpServletRequest http) {
+        long waitSeconds = throttle.tryAcquire(request.getUsername(), http.getRemoteAddr());
+        if (waitSeconds > 0) {
+            return CompletableFuture.completedFuture(
+                    tooManyRequests(waitSeconds, "Too many login attempts, try again later"));
+        }
+        try {
+            return authService.login(request).thenApply(authData -> authData == null
+                    ? ResponseEntity.status(401).body("Invalid username or password")
+                    : ResponseEntity.ok(authData));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(1, "Login is busy, try again shortly"));
+        }
+    }
 
-        Map<String, String> authData = authService.login(request);
+    // ✅ REFRESH: { refreshToken } -> new token pair; the presented refresh token is used up
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.badRequest().body("refreshToken is required");
+        }
+        Map<String, String> tokens = refreshTokens.refresh(refreshToken);
+        if (tokens == null) {
+            return ResponseEntity.status(401).body("Invalid or expired refresh token");
+        }
+        return ResponseEntity.ok(tokens);
+    }
 
-        if (authData == null) {
-            return ResponseEntity.status(401).body("Invalid username or password");
+    // ✅ LOGOUT: revokes the refresh token's family and the access tokens it issued
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokens.logout(refreshToken);
         }
+        return ResponseEntity.noContent().build();
+    }
 
-        return ResponseEntity.ok(authData);
+    private static ResponseEntity<?> tooManyRequests(long retryAfterSeconds, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(message);
     }
 }
@@ -1,11 +1,37 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BulkEmployeeRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.dto.EmployeeStatsDTO;
+import com.example.demo.dto.ImportReport;
 import com.example.demo.entity.Employee;
+import com.example.demo.security.TokenRevocationList;
+import com.example.demo.security.VerifiedToken;
+import com.example.demo.service.EmployeeChangeFeed;
+import com.example.demo.service.EmployeeExportService;
+import com.example.demo.service.EmployeeImportService;
 import com.example.demo.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/employees")
@@ -13,21 +39,126 @@ import org.springframework.web.bind.annotation.*;
 public class EmployeeController {
 
     private final EmployeeService service;
+    private final EmployeeImportService importService;
+    private final EmployeeExportService exportService;
+    private final EmployeeChangeFeed changeFeed;
+    private final TokenRevocationList revocations;
 
-    public EmployeeController(EmployeeService service) {
+    public EmployeeController(EmployeeService service, EmployeeImportService importService,
+            EmployeeExportService exportService, EmployeeChangeFeed changeFeed, TokenRevocationList revocations) {
         this.service = service;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.changeFeed = changeFeed;
+        this.revocations = revocations;
     }
 
+    // Summary rows only; full records stay on /details/{id}.
+    // ETag fingerprints the rows' versions, so an unchanged page is a 304 without serialization
     @GetMapping
-    public org.springframework.data.domain.Page<Employee> getAll(
+    public ResponseEntity<?> getAll(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) Set<String> fields,
             org.springframework.data.domain.Pageable pageable) {
-        return service.getAll(search, pageable);
+        try {
+            org.springframework.data.domain.Page<EmployeeDTO> page = service.getAll(search, fields, pageable);
+            String etag = EmployeeEtags.fingerprint(page.getContent(), search,
+                    fields == null ? null : new TreeSet<>(fields), pageable, page.getTotalElements());
+            return ResponseEntity.ok().cacheControl(EmployeeEtags.REVALIDATE).eTag(etag).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Served from in-memory counters; hires are counted by joinedDate within the window
+    @GetMapping("/stats")
+    public EmployeeStatsDTO getStats(@RequestParam(defaultValue = "30") int windowDays) {
+        return service.getStats(windowDays);
+    }
+
+    // Keyset pages: ?sort=joinedDate,desc&size=20, then follow nextCursor / prevCursor.
+    // count=exact|approx adds a total; by default no COUNT(*) is run.
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scroll(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String count) {
+        try {
+            CursorPage<EmployeeDTO> page = service.scroll(search, sort, cursor, Math.max(1, Math.min(size, 1000)),
+                    count);
+            String etag = EmployeeEtags.fingerprint(page.getContent(), search, sort, cursor, size, count,
+                    page.getNextCursor(), page.getPrevCursor(), page.getTotalElements());
+            return ResponseEntity.ok().cacheControl(EmployeeEtags.REVALIDATE).eTag(etag).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Server-Sent Events: created / updated / deleted / reset; reconnect with Last-Event-ID to resume.
+    // The stream lasts no longer than the access token that opened it
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> changes(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication) {
+        if (authentication == null || !(authentication.getDetails() instanceof VerifiedToken token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = changeFeed.subscribe(lastEventId, token.expiresAtMillis(),
+                () -> revocations.isRevoked(token.tokenId()));
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        // Proxies such as nginx would otherwise hold events back in their buffers
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
     }
 
     @PostMapping
-    public Employee add(@RequestBody Employee emp) {
-        return service.add(emp);
+    public ResponseEntity<?> add(@RequestBody Employee emp) {
+        try {
+            return ResponseEntity.ok(service.add(emp));
+        } catch (IllegalArgumentException e) {
+            // an inline photo that is not an accepted image, or too large
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ BULK IMPORT: text/csv with a header row, or application/x-ndjson (one employee per line)
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ImportReport importEmployees(HttpServletRequest request) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        if (request.getContentType().startsWith("text/csv")) {
+            return importService.importCsv(reader);
+        }
+        return importService.importNdjson(reader);
+    }
+
+    // ✅ EXPORT: ?format=csv|ndjson&search=..&sort=name,desc, photos only with includePhotos=true
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean includePhotos,
+            HttpServletResponse response) throws IOException {
+        EmployeeExportService.ExportQuery query;
+        try {
+            query = exportService.prepare(format, search, sort, includePhotos);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("text/plain");
+            response.getWriter().write(e.getMessage());
+            return;
+        }
+        boolean csv = EmployeeExportService.CSV.equals(format);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"employees." + format + "\"");
+        exportService.export(query, response.getOutputStream());
     }
 
     @DeleteMapping("/{id}")
@@ -35,18 +166,71 @@ public class EmployeeController {
         service.delete(id);
     }
 
-    // ✅ GET EMPLOYEE BY ID (EDIT)
+    // ✅ GET EMPLOYEE BY ID (EDIT): ETag is the version, echo it back in If-Match on PUT
     @GetMapping("/{id}")
-    public Employee getById(@PathVariable Long id) {
-        return service.getById(id);
+    public ResponseEntity<Employee> getById(@PathVariable Long id) {
+        return EmployeeEtags.conditional(service.getById(id));
     }
 
-    // ✅ UPDATE EMPLOYEE
+    // ✅ UPDATE EMPLOYEE: If-Match is required (428 without it, 412 when the record changed since)
     @PutMapping("/{id}")
-    public Employee updateEmployee(
+    public ResponseEntity<?> updateEmployee(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Employee emp) {
-        return service.updateEmployee(id, emp);
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body("If-Match header with the employee's ETag is required");
+        }
+        try {
+            return EmployeeEtags.conditional(service.updateEmployee(id, emp, EmployeeEtags.expectedVersion(ifMatch)));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Employee was modified by someone else; reload and try again");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ PATCH EMPLOYEE: JSON object with just the fields to change; same If-Match rules as PUT
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchEmployee(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> changes) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .body("If-Match header with the employee's ETag is required");
+        }
+        try {
+            return EmployeeEtags.conditional(
+                    service.patchEmployee(id, changes, EmployeeEtags.expectedVersion(ifMatch)));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Employee was modified by someone else; reload and try again");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ BULK UPDATE: { ids | department, newDepartment?, companyRole?, salary? | salaryPercent? }
+    @PostMapping("/bulk/update")
+    public ResponseEntity<?> bulkUpdate(@RequestBody BulkEmployeeRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("rowsAffected", service.bulkUpdate(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ✅ BULK DELETE: { ids | department }; also removes attendance and USER logins
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> bulkDelete(@RequestBody BulkEmployeeRequest request) {
+        try {
+            return ResponseEntity.ok(Map.of("rowsAffected", service.bulkDelete(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // @GetMapping("/search")
@@ -60,8 +244,8 @@ public class EmployeeController {
     }
 
     @GetMapping("/details/{id}")
-    public Employee getFullEmployee(@PathVariable Long id) {
-        return service.getById(id);
+    public ResponseEntity<Employee> getFullEmployee(@PathVariable Long id) {
+        return EmployeeEtags.conditional(service.getById(id));
     }
 
 }
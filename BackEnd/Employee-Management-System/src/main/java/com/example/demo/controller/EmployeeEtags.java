@@ -0,0 +1,84 @@
+package com.example.demo.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.entity.Employee;
+
+/**
+ * Strong validators for employee resources. A single employee's ETag is its
+ * {@code @Version}. A list's ETag fingerprints exactly what the list renders: the
+ * request parameters, the total, and the (id, version) pairs of the rows. That makes
+ * the check one page query with no serialization. {@code no-cache} keeps clients
+ * revalidating on every request, and Spring returns 304 for a matching
+ * {@code If-None-Match}.
+ */
+final class EmployeeEtags {
+
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private EmployeeEtags() {
+    }
+
+    static String of(Employee employee) {
+        return "\"" + employee.getVersion() + "\"";
+    }
+
+    static ResponseEntity<Employee> conditional(Employee employee) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(of(employee));
+        if (employee.getUpdatedAt() != null) {
+            builder.lastModified(employee.getUpdatedAt().atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(employee);
+    }
+
+    static String fingerprint(List<EmployeeDTO> rows, Object... request) {
+        MessageDigest digest = sha256();
+        for (Object part : request) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        for (EmployeeDTO row : rows) {
+            digest.update((row.getId() + ":" + row.getVersion() + ";").getBytes(StandardCharsets.US_ASCII));
+        }
+        // 128 bits is plenty to tell pages apart
+        byte[] hash = digest.digest();
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+    }
+
+    /**
+     * Version named by an If-Match header, -1 when it cannot match any version
+     * (weak or malformed tags), or null for {@code *}.
+     */
+    static Long expectedVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.service.EmployeeService;
+import com.example.demo.service.PhotoStorageService;
+import com.example.demo.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/employees")
+@CrossOrigin(origins = "http://localhost:5173")
+public class EmployeePhotoController {
+
+    // Tomcat's NIO connector advertises sendfile support through these request attributes
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // A thumbnail URL carrying ?v=<photoRef> names content that never changes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+    private final EmployeeService service;
+    private final PhotoStorageService photoStorage;
+    private final ThumbnailService thumbnails;
+
+    public EmployeePhotoController(EmployeeService service, PhotoStorageService photoStorage,
+            ThumbnailService thumbnails) {
+        this.service = service;
+        this.photoStorage = photoStorage;
+        this.thumbnails = thumbnails;
+    }
+
+    @GetMapping("/{id}/photo")
+    public void getPhoto(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Employee emp = service.getById(id);
+        if (emp.getPhotoRef() == null || !photoStorage.exists(emp.getPhotoRef())) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + emp.getPhotoRef() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        Path file = photoStorage.resolve(emp.getPhotoRef());
+        long size = Files.size(file);
+        long start = 0;
+        long end = size - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multi-range requests are answered with the full body, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (size == 0 || !isSatisfiable(rangeHeader, size)) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        // Rows stored before types were sniffed may carry whatever the client claimed
+        String contentType = emp.getPhotoContentType();
+        response.setContentType(contentType != null && PhotoStorageService.CONTENT_TYPES.contains(contentType)
+                ? contentType
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(end - start + 1);
+        sendFile(request, response, file, start, end + 1);
+    }
+
+    @GetMapping("/{id}/photo/{size}")
+    public CompletableFuture<ResponseEntity<?>> getThumbnail(@PathVariable Long id, @PathVariable int size,
+            @RequestParam(value = "v", required = false) String version, WebRequest request,
+            HttpServletResponse response) {
+        Employee emp = service.getById(id);
+        String ref = emp.getPhotoRef();
+        if (!thumbnails.supports(size) || ref == null || !photoStorage.exists(ref)) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+
+        String etag = "\"" + ref + "-" + size + "\"";
+        CacheControl cacheControl = ref.equals(version) ? IMMUTABLE : CacheControl.noCache().cachePrivate();
+        // Set before going async: Spring Security writes its no-store default when the
+        // first dispatch returns unless the header is already there
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (request.checkNotModified(etag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        }
+        try {
+            return thumbnails.thumbnail(ref, size)
+                    .<ResponseEntity<?>>thenApply(jpeg -> ResponseEntity.ok()
+                            .eTag(etag)
+                            .contentType(MediaType.IMAGE_JPEG)
+                            .body(jpeg))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof IllegalArgumentException) {
+                            // not an image ImageIO can read; clients fall back to the original
+                            return ResponseEntity.notFound().build();
+                        }
+                        throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                    });
+        } catch (RejectedExecutionException e) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Thumbnails are busy, try again shortly"));
+        }
+    }
+
+    @PutMapping(value = "/{id}/photo", consumes = "image/*")
+    public ResponseEntity<?> uploadPhoto(@PathVariable Long id, HttpServletRequest request) throws IOException {
+        service.getById(id);
+        PhotoStorageService.StoredPhoto stored;
+        try {
+            stored = photoStorage.store(request.getInputStream());
+        } catch (PhotoStorageService.UnsupportedPhotoException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(413).body(e.getMessage());
+        }
+        Employee updated = service.updatePhoto(id, stored);
+        return ResponseEntity.ok(Map.of("photoRef", updated.getPhotoRef()));
+    }
+
+    @DeleteMapping("/{id}/photo")
+    public void deletePhoto(@PathVariable Long id) {
+        service.removePhoto(id);
+    }
+
+    // Zero-copy path: hand the file to Tomcat's sendfile, else let the kernel copy via transferTo
+    private void sendFile(HttpServletRequest request, HttpServletResponse response, Path file, long start,
+            long endExclusive) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, endExclusive);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < endExclusive) {
+                position += channel.transferTo(position, endExclusive - position, out);
+            }
+        }
+    }
+
+    private static boolean isSatisfiable(String rangeHeader, long size) {
+        // "bytes=N-" with N past the end is the only shape HttpRange accepts but cannot serve
+        String spec = rangeHeader.substring(rangeHeader.indexOf('=') + 1).trim();
+        if (spec.startsWith("-")) {
+            return !spec.equals("-0");
+        }
+        int dash = spec.indexOf('-');
+        return dash > 0 && Long.parseLong(spec.substring(0, dash).trim()) < size;
+    }
+}
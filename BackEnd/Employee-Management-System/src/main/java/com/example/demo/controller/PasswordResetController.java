@@ -3,69 +3,62 @@ package com.example.demo.controller;
 import com.example.demo.entity.User;
 import com.example.demo.repository.EmployeeRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.service.EmailService;
+import com.example.demo.security.PasswordResetTokenStore;
+import com.example.demo.service.PasswordResetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:5173", allowedHeaders = "*", methods = { RequestMethod.POST })
 public class PasswordResetController {
 
+    private static final Logger log = LoggerFactory.getLogger(PasswordResetController.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private EmailService emailService;
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private PasswordResetTokenStore tokenStore;
 
     // 1. Forgot Password - Request Reset Link
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> request) {
-        System.out.println("Forgot Password endpoint hit with email: " + request.get("email")); // DEBUG LOG
         String email = request.get("email");
         if (email == null) {
             return ResponseEntity.badRequest().body("Email is required");
         }
 
+        // Throttled per address before the lookup, so a loop costs neither queries nor mail
+        long wait = tokenStore.tryAcquire(email);
+        if (wait > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(wait))
+                    .body("Too many reset requests, try again in " + wait + " seconds");
+        }
+
         // Find User directly by Email
-        System.out.println("Looking up user with email: " + email); // DEBUG
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
-            System.out.println("No user found with email: " + email); // DEBUG
+            log.debug("Password reset requested for unknown email");
             return ResponseEntity.status(404).body("No user found with this email");
         }
-        System.out.println("User found: " + userOpt.get().getUsername()); // DEBUG
-
-        User user = userOpt.get();
-
-        // Generate Token
-        String token = UUID.randomUUID().toString();
-        user.setResetToken(token);
-        user.setResetTokenExpiry(LocalDateTime.now().plusHours(1)); // 1 hour expiry
-        userRepository.save(user);
-
-        // Send Email
-        String resetLink = "http://localhost:5173/reset-password?token=" + token;
-        String subject = "Password Reset Request";
-        String body = "Hello " + user.getUsername() + ",\n\n" +
-                "You requested to reset your password. Click the link below to reset it:\n" +
-                resetLink + "\n\n" +
-                "This link will expire in 1 hour.\n\n" +
-                "If you didn't request this, please ignore this email.";
+        log.debug("Password reset requested for user {}", userOpt.get().getId());
 
-        try {
-            emailService.sendEmail(email, subject, body);
-            return ResponseEntity.ok("Password reset link sent to your email");
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).body("Error sending email");
-        }
+        // Delivery happens in the background once the outbox row is committed
+        passwordResetService.requestReset(userOpt.get());
+        return ResponseEntity.ok("Password reset link sent to your email");
     }
 
     // 2. Reset Password - Submit New Password
@@ -78,25 +71,9 @@ public class PasswordResetController {
             return ResponseEntity.badRequest().body("Token and new password are required");
         }
 
-        // Find User by Token
-        Optional<User> userOpt = userRepository.findByResetToken(token);
-        if (userOpt.isEmpty()) {
+        if (!passwordResetService.resetPassword(token, newPassword)) {
             return ResponseEntity.status(400).body("Invalid or expired reset token");
         }
-
-        User user = userOpt.get();
-
-        // Check Expiry
-        if (user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
-            return ResponseEntity.status(400).body("Reset token has expired");
-        }
-
-        // Update Password (Plain text as per current system design)
-        user.setPassword(newPassword);
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
-        userRepository.save(user);
-
         return ResponseEntity.ok("Password reset successfully. You can now login.");
     }
 }
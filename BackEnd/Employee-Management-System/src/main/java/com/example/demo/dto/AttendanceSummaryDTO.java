@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-employee counts for one month
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummaryDTO {
+    private Long employeeId;
+    private String name;
+    private String department;
+    private long present;
+    private long absent;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+@Data
+public class BulkAttendanceRequest {
+    private String department;
+    private LocalDate date;
+    private String status;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BulkEmployeeRequest {
+    // Which employees: either ids or everyone in department
+    private List<Long> ids;
+    private String department;
+
+    // What to change (bulk update only); null leaves the column alone
+    private String newDepartment;
+    private String companyRole;
+    private Double salary;
+    // Relative raise, e.g. 5 for +5%; cannot be combined with salary
+    private Double salaryPercent;
+}
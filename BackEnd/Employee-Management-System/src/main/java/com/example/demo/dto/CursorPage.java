@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One keyset page: opaque cursors instead of page numbers, total only when asked for
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String prevCursor;
+    private Long totalElements;
+    private Boolean totalApproximate;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-department counts for one month; employees = distinct employees with any record
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentAttendanceDTO {
+    private String department;
+    private long employees;
+    private long present;
+    private long absent;
+}
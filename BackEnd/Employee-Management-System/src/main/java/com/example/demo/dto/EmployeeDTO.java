@@ -1,5 +1,60 @@
 package com.example.demo.dto;
 
+import java.time.LocalDate;
+import java.util.Set;
+
+import com.example.demo.entity.Employee;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Slim row for the employee list; built straight from JPQL constructor projections
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EmployeeDTO {
 
+    public static final Set<String> FIELDS = Set.of(
+            "id", "name", "email", "department", "companyRole", "address", "joinedDate", "photoRef");
+
+    private Long id;
+    private String name;
+    private String email;
+    private String department;
+    private String companyRole;
+    private String address;
+    private LocalDate joinedDate;
+    private String photoRef;
+    private Long version;
+
+    // The same row for an entity already in hand, e.g. one just saved
+    public static EmployeeDTO of(Employee employee) {
+        return new EmployeeDTO(employee.getId(), employee.getName(), employee.getEmail(), employee.getDepartment(),
+                employee.getCompanyRole(), employee.getAddress(), employee.getJoinedDate(), employee.getPhotoRef(),
+                employee.getVersion());
+    }
+
+    // Keeps only the requested columns; id and version are always returned so rows stay addressable.
+    // Output-only: the summary query already reads just these narrow columns, so every one is fetched.
+    public EmployeeDTO retain(Set<String> fields) {
+        if (!fields.contains("name")) name = null;
+        if (!fields.contains("email")) email = null;
+        if (!fields.contains("department")) department = null;
+        if (!fields.contains("companyRole")) companyRole = null;
+        if (!fields.contains("address")) address = null;
+        if (!fields.contains("joinedDate")) joinedDate = null;
+        if (!fields.contains("photoRef")) photoRef = null;
+        return this;
+    }
+
+    public static void checkFields(Set<String> fields) {
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'; expected one of " + FIELDS);
+            }
+        }
+    }
 }
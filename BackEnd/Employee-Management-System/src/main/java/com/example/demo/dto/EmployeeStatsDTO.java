@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmployeeStatsDTO {
+    private long totalEmployees;
+    private int departments;
+    private Map<String, Long> departmentCounts;
+    private long recentHires;
+    private int windowDays;
+    private LocalDateTime reconciledAt;
+}
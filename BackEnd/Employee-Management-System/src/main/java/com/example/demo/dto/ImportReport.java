@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportReport {
+
+    private int total;
+    private int imported;
+    private int failed;
+    private int usersCreated;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public record RowError(int line, String message) {
+    }
+}
@@ -3,15 +3,28 @@ package com.example.demo.entity;
 import java.time.LocalDate;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
 
+// One row per employee per day; writes go through AttendanceRepository's upserts
 @Entity
+@Getter
+@Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_attendance_employee_date", columnNames = { "employee_id",
+        "date" }))
 public class Attendance {
 
+    public static final String PRESENT = "PRESENT";
+    public static final String ABSENT = "ABSENT";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,9 +33,8 @@ public class Attendance {
 
     private String status; // PRESENT or ABSENT
 
-    @ManyToOne
+    // Lazy so attendance queries never load the employee row
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "employee_id")
     private Employee employee;
-
-    // getters & setters
 }
@@ -5,10 +5,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import lombok.Data;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// UPDATEs list only the changed columns, so a PATCH of one field writes one field
 @Entity
+@DynamicUpdate
 @Data
 public class Employee {
 
@@ -31,21 +39,49 @@ public class Employee {
     private Double salary;
 
     // 🔹 Photo
-    @Lob
-    @Column(columnDefinition = "LONGTEXT")
+    // Incoming Base64 data URL only; the bytes live in PhotoStorageService
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String photo;
-    // store image name or Base64 string
+
+    // SHA-256 of the stored blob, served from /api/employees/{id}/photo
+    @Column(length = 64)
+    private String photoRef;
+    private String photoContentType;
 
     private String username;
 
+    // Maintained by the database as LOWER(name) / LOWER(department) for indexed case-insensitive search
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String nameLower;
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String departmentLower;
+
     private java.time.LocalDate joinedDate;
     private java.time.LocalDateTime createdAt;
 
+    // 🔹 Concurrency: ETag is the version, Last-Modified is updatedAt
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private java.time.LocalDateTime updatedAt;
+
     @jakarta.persistence.PrePersist
     protected void onCreate() {
         createdAt = java.time.LocalDateTime.now();
+        updatedAt = createdAt;
         if (joinedDate == null) {
             joinedDate = java.time.LocalDate.now();
         }
     }
+
+    @jakarta.persistence.PreUpdate
+    protected void onUpdate() {
+        updatedAt = java.time.LocalDateTime.now();
+    }
 }
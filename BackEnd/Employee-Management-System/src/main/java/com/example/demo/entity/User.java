@@ -22,7 +22,4 @@ public class User {
     @Column(nullable = false)
     private String role; // ADMIN or USER
 
-    private String resetToken;
-    private java.time.LocalDateTime resetTokenExpiry;
-
 }
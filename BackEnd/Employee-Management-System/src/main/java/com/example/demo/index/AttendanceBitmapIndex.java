@@ -0,0 +1,275 @@
+package com.example.demo.index;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.StreamingStatements;
+import com.example.demo.entity.Attendance;
+
+/**
+ * In-memory attendance bitmaps, one {@link YearBitmap} per employee per year that
+ * has any marks. Range counts, streaks and department rollups are answered with
+ * word-level popcounts instead of loading attendance rows. Built from the
+ * attendance table at startup and kept current by AttendanceService; marks made while
+ * a rebuild scans the table are replayed onto the new bitmaps before the swap.
+ */
+@Component
+public class AttendanceBitmapIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceBitmapIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final EmployeeSearchIndex employees;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Map<Long, Map<Integer, YearBitmap>> bitmaps = new HashMap<>();
+    // Changes since the running rebuild started, or null; guarded by the write lock
+    private List<Mutation> journal;
+    private volatile boolean ready;
+    private volatile long lastRebuildMillis;
+    private volatile long lastRebuildRows;
+
+    public AttendanceBitmapIndex(JdbcTemplate jdbcTemplate, EmployeeSearchIndex employees,
+            @Value("${app.attendance.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.employees = employees;
+    }
+
+    // date is null for a removed employee
+    private record Mutation(long employeeId, LocalDate date, String status) {
+    }
+
+    public record Stats(boolean ready, int employees, int yearBitmaps, long estimatedBytes, long lastRebuildRows,
+            long lastRebuildMillis) {
+    }
+
+    /** Counts over an inclusive date range; streaks count consecutive PRESENT days. */
+    public record RangeStats(long present, long absent, long unmarked, Double attendanceRate, int longestStreak,
+            int currentStreak) {
+    }
+
+    public record DepartmentStats(String department, int employees, long present, long absent, long unmarked,
+            Double attendanceRate) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        rebuild();
+    }
+
+    // One rebuild at a time, so there is one journal. A ReentrantLock, not synchronized: the scan is
+    // long JDBC I/O, and a monitor would pin the carrier of a virtual request thread for all of it
+    public Stats rebuild() {
+        rebuilding.lock();
+        try {
+            return scanAndSwap();
+        } catch (RuntimeException e) {
+            // Stop journaling, or every later change would pile up in it
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private Stats scanAndSwap() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Map<Integer, YearBitmap>> fresh = new HashMap<>();
+        long[] rows = new long[1];
+        String sql = "SELECT employee_id, date, status FROM attendance";
+        jdbcTemplate.query(StreamingStatements.of(sql, fetchSize), rs -> {
+            LocalDate date = rs.getObject(2, LocalDate.class);
+            set(fresh, rs.getLong(1), date, rs.getString(3));
+            rows[0]++;
+        });
+
+        lock.writeLock().lock();
+        try {
+            // The scan may have read rows before or after these changes; they are the newer state
+            for (Mutation mutation : journal) {
+                if (mutation.date() == null) {
+                    fresh.remove(mutation.employeeId());
+                } else {
+                    set(fresh, mutation.employeeId(), mutation.date(), mutation.status());
+                }
+            }
+            journal = null;
+            bitmaps = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildRows = rows[0];
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        ready = true;
+        log.info("Attendance bitmap index built: {} rows for {} employees in {} ms", rows[0], fresh.size(),
+                lastRebuildMillis);
+        return stats();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void mark(Long employeeId, LocalDate date, String status) {
+        lock.writeLock().lock();
+        try {
+            apply(employeeId, date, status);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markAll(Collection<Long> employeeIds, LocalDate date, String status) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : employeeIds) {
+                apply(id, date, status);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEmployee(Long employeeId) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.remove(employeeId);
+            if (journal != null) {
+                journal.add(new Mutation(employeeId, null, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(long employeeId, LocalDate date, String status) {
+        set(bitmaps, employeeId, date, status);
+        if (journal != null) {
+            journal.add(new Mutation(employeeId, date, status));
+        }
+    }
+
+    public RangeStats employeeStats(Long employeeId, LocalDate from, LocalDate to) {
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        lock.readLock().lock();
+        try {
+            long[] counts = new long[2];
+            int[] runs = new int[2];
+            Map<Integer, YearBitmap> years = bitmaps.getOrDefault(employeeId, Map.of());
+            for (int year = from.getYear(); year <= to.getYear(); year++) {
+                YearBitmap bitmap = years.get(year);
+                int fromDay = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+                int toDay = year == to.getYear() ? to.getDayOfYear() - 1 : lastDay(year);
+                if (bitmap == null) {
+                    runs[0] = 0;
+                    continue;
+                }
+                counts[0] += YearBitmap.count(bitmap.present, fromDay, toDay);
+                counts[1] += YearBitmap.count(bitmap.absent, fromDay, toDay);
+                YearBitmap.scanRuns(bitmap.present, fromDay, toDay, runs);
+            }
+            return new RangeStats(counts[0], counts[1], days - counts[0] - counts[1], rate(counts[0], counts[1]),
+                    runs[1], runs[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public DepartmentStats departmentStats(String department, LocalDate from, LocalDate to) {
+        long[] members = employees.departmentMembers(department);
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        long present = 0;
+        long absent = 0;
+        lock.readLock().lock();
+        try {
+            for (long id : members) {
+                Map<Integer, YearBitmap> years = bitmaps.get(id);
+                if (years == null) {
+                    continue;
+                }
+                for (int year = from.getYear(); year <= to.getYear(); year++) {
+                    YearBitmap bitmap = years.get(year);
+                    if (bitmap == null) {
+                        continue;
+                    }
+                    int fromDay = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+                    int toDay = year == to.getYear() ? to.getDayOfYear() - 1 : lastDay(year);
+                    present += YearBitmap.count(bitmap.present, fromDay, toDay);
+                    absent += YearBitmap.count(bitmap.absent, fromDay, toDay);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new DepartmentStats(department, members.length, present, absent,
+                days * members.length - present - absent, rate(present, absent));
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            int years = 0;
+            for (Map<Integer, YearBitmap> perEmployee : bitmaps.values()) {
+                years += perEmployee.size();
+            }
+            // map entries and boxed keys for both levels, plus the bitmaps themselves
+            long bytes = bitmaps.size() * (48L + 24 + 64) + years * (48L + 16 + YearBitmap.BYTES);
+            return new Stats(ready, bitmaps.size(), years, bytes, lastRebuildRows, lastRebuildMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int lastDay(int year) {
+        return Year.isLeap(year) ? 365 : 364;
+    }
+
+    private static Double rate(long present, long absent) {
+        return present + absent == 0 ? null : (double) present / (present + absent);
+    }
+
+    private static void set(Map<Long, Map<Integer, YearBitmap>> target, long employeeId, LocalDate date,
+            String status) {
+        YearBitmap bitmap = target.computeIfAbsent(employeeId, id -> new HashMap<>(4))
+                .computeIfAbsent(date.getYear(), y -> new YearBitmap());
+        int day = date.getDayOfYear() - 1;
+        if (Attendance.PRESENT.equals(status)) {
+            bitmap.mark(day, true);
+        } else if (Attendance.ABSENT.equals(status)) {
+            bitmap.mark(day, false);
+        } else {
+            bitmap.clear(day);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.demo.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+
+/**
+ * In-memory trigram index over employee name, department, company role and id.
+ * It replaces the {@code LIKE '%kw%'} scan: a keyword resolves to candidate ids by
+ * intersecting the posting lists of its trigrams, candidates are verified and ranked
+ * (exact &gt; prefix &gt; substring) and only the requested page is hydrated from MySQL.
+ * Keywords shorter than three characters fall back to a scan of the in-memory documents.
+ * Changes made while a rebuild scans the table are journaled and replayed onto the new
+ * index before it replaces the old one, so none is lost to the swap.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+    private static final int LOAD_BATCH = 5000;
+
+    // Sort keys mirror EmployeeRepositoryImpl so keyset cursors work the same on both paths
+    private static final Map<String, Comparator<Doc>> SORTS = Map.of(
+            "id", Comparator.comparingLong(Doc::id),
+            "name", Comparator.comparing(Doc::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "department", Comparator.comparing(Doc::department,
+                    Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "joinedDate", Comparator.comparing(Doc::joinedDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final EmployeeRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    private Map<Long, Doc> docs = new HashMap<>();
+    private Map<String, PostingList> postings = new HashMap<>();
+    // Changes since the running rebuild started, or null; guarded by the write lock
+    private List<Mutation> journal;
+    private volatile boolean ready;
+    private volatile long lastRebuildMillis;
+
+    public EmployeeSearchIndex(EmployeeRepository repository) {
+        this.repository = repository;
+    }
+
+    record Doc(long id, String name, String department, String companyRole, LocalDate joinedDate, String[] terms) {
+    }
+
+    // doc is null for a removal
+    private record Mutation(long id, Doc doc) {
+    }
+
+    public record Stats(boolean ready, int documents, int trigrams, long postings, long estimatedBytes,
+            long lastRebuildMillis) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        rebuild();
+    }
+
+    // One rebuild at a time, so there is one journal. A ReentrantLock, not synchronized: the scan is
+    // long JDBC I/O, and a monitor would pin the carrier of a virtual request thread for all of it
+    public Stats rebuild() {
+        rebuilding.lock();
+        try {
+            return scanAndSwap();
+        } catch (RuntimeException e) {
+            // Stop journaling, or every later change would pile up in it
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private Stats scanAndSwap() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Long, Doc> newDocs = new HashMap<>();
+        Map<String, PostingList> newPostings = new HashMap<>();
+        long afterId = 0;
+        List<EmployeeDTO> batch;
+        do {
+            batch = repository.findSummariesAfter(afterId, PageRequest.ofSize(LOAD_BATCH));
+            for (EmployeeDTO e : batch) {
+                Doc doc = toDoc(e.getId(), e.getName(), e.getDepartment(), e.getCompanyRole(), e.getJoinedDate());
+                newDocs.put(doc.id(), doc);
+                addPostings(newPostings, doc);
+                afterId = e.getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+
+        lock.writeLock().lock();
+        try {
+            // The scan may have read rows before or after these changes; they are the newer state
+            for (Mutation mutation : journal) {
+                if (mutation.doc() != null) {
+                    replace(newDocs, newPostings, mutation.doc());
+                } else {
+                    remove(newDocs, newPostings, mutation.id());
+                }
+            }
+            journal = null;
+            docs = newDocs;
+            postings = newPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        ready = true;
+        log.info("Employee search index built: {} documents in {} ms", newDocs.size(), lastRebuildMillis);
+        return stats();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean supportsSort(String sortField) {
+        return SORTS.containsKey(sortField);
+    }
+
+    public void put(Employee employee) {
+        Doc doc = toDoc(employee.getId(), employee.getName(), employee.getDepartment(), employee.getCompanyRole(),
+                employee.getJoinedDate());
+        lock.writeLock().lock();
+        try {
+            apply(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-indexes rows touched by a set-based update under a single write lock
+    public void putAll(Collection<EmployeeDTO> rows) {
+        List<Doc> batch = new ArrayList<>(rows.size());
+        for (EmployeeDTO e : rows) {
+            batch.add(toDoc(e.getId(), e.getName(), e.getDepartment(), e.getCompanyRole(), e.getJoinedDate()));
+        }
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        removeAll(List.of(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                remove(docs, postings, id);
+                if (journal != null) {
+                    journal.add(new Mutation(id, null));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void apply(Doc doc) {
+        replace(docs, postings, doc);
+        if (journal != null) {
+            journal.add(new Mutation(doc.id(), doc));
+        }
+    }
+
+    private void replace(Map<Long, Doc> targetDocs, Map<String, PostingList> targetPostings, Doc doc) {
+        Doc old = targetDocs.put(doc.id(), doc);
+        if (old != null) {
+            removePostings(targetPostings, old);
+        }
+        addPostings(targetPostings, doc);
+    }
+
+    private void remove(Map<Long, Doc> targetDocs, Map<String, PostingList> targetPostings, long id) {
+        Doc old = targetDocs.remove(id);
+        if (old != null) {
+            removePostings(targetPostings, old);
+        }
+    }
+
+    /** All matching ids, best rank first and ties by id. */
+    public List<Long> search(String keyword) {
+        String q = normalize(keyword);
+        lock.readLock().lock();
+        try {
+            Map<Doc, Integer> scored = new LinkedHashMap<>();
+            for (Doc doc : candidates(q)) {
+                int score = score(doc, q);
+                if (score > 0) {
+                    scored.put(doc, score);
+                }
+            }
+            return scored.entrySet().stream()
+                    .sorted(Map.Entry.<Doc, Integer>comparingByValue().reversed()
+                            .thenComparing(e -> e.getKey().id()))
+                    .map(e -> e.getKey().id())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keyset slice of the matches ordered by {@code sortField} then id, strictly after
+     * ({@code afterValue}, {@code afterId}); same contract as the SQL scroll query.
+     */
+    public List<Long> scroll(String keyword, String sortField, boolean descending, Object afterValue, Long afterId,
+            int limit) {
+        Comparator<Doc> order = SORTS.get(sortField);
+        if (order == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        order = order.thenComparingLong(Doc::id);
+        if (descending) {
+            order = order.reversed();
+        }
+        Doc probe = afterId == null ? null : probe(sortField, afterValue, afterId);
+        String q = normalize(keyword);
+
+        lock.readLock().lock();
+        try {
+            List<Doc> matches = new ArrayList<>();
+            for (Doc doc : candidates(q)) {
+                if (score(doc, q) > 0 && (probe == null || order.compare(doc, probe) > 0)) {
+                    matches.add(doc);
+                }
+            }
+            matches.sort(order);
+            return matches.stream().limit(limit).map(Doc::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(String keyword) {
+        String q = normalize(keyword);
+        lock.readLock().lock();
+        try {
+            return candidates(q).stream().filter(doc -> score(doc, q) > 0).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of employees in {@code department}, compared as MySQL's default collation does
+     * for {@code department = ?}: ignoring case and trailing spaces.
+     */
+    public long[] departmentMembers(String department) {
+        String wanted = department.stripTrailing();
+        lock.readLock().lock();
+        try {
+            return docs.values().stream()
+                    .filter(doc -> doc.department() != null
+                            && wanted.equalsIgnoreCase(doc.department().stripTrailing()))
+                    .mapToLong(Doc::id)
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long entries = 0;
+            long bytes = 0;
+            for (Map.Entry<String, PostingList> e : postings.entrySet()) {
+                entries += e.getValue().size();
+                bytes += 48 + 40 + e.getValue().capacityBytes();
+            }
+            for (Doc doc : docs.values()) {
+                bytes += 48 + 64;
+                for (String term : doc.terms()) {
+                    bytes += 40 + term.length();
+                }
+            }
+            return new Stats(ready, docs.size(), postings.size(), entries, bytes, lastRebuildMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private List<Doc> candidates(String q) {
+        if (q.length() < 3) {
+            return new ArrayList<>(docs.values());
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : trigrams(q)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+        List<Doc> result = new ArrayList<>();
+        outer: for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue outer;
+                }
+            }
+            result.add(docs.get(id));
+        }
+        return result;
+    }
+
+    // 3 = exact field match, 2 = field or word prefix, 1 = substring, 0 = no match
+    private static int score(Doc doc, String q) {
+        if (q.isEmpty()) {
+            return 0;
+        }
+        int best = 0;
+        for (String term : doc.terms()) {
+            if (term.equals(q)) {
+                return 3;
+            }
+            int at = term.indexOf(q);
+            if (at == 0 || (at > 0 && term.charAt(at - 1) == ' ')) {
+                best = 2;
+            } else if (at > 0 && best == 0) {
+                best = 1;
+            }
+        }
+        return best;
+    }
+
+    private void addPostings(Map<String, PostingList> target, Doc doc) {
+        for (String gram : docGrams(doc)) {
+            target.computeIfAbsent(gram, g -> new PostingList()).add(doc.id());
+        }
+    }
+
+    private void removePostings(Map<String, PostingList> target, Doc doc) {
+        for (String gram : docGrams(doc)) {
+            PostingList list = target.get(gram);
+            if (list != null) {
+                list.remove(doc.id());
+                if (list.size() == 0) {
+                    target.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> docGrams(Doc doc) {
+        Set<String> grams = new HashSet<>();
+        for (String term : doc.terms()) {
+            grams.addAll(trigrams(term));
+        }
+        return grams;
+    }
+
+    private static Set<String> trigrams(String s) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams.add(s.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static Doc toDoc(long id, String name, String department, String companyRole, LocalDate joinedDate) {
+        List<String> terms = new ArrayList<>(4);
+        for (String field : new String[] { name, department, companyRole }) {
+            if (field != null && !field.isBlank()) {
+                terms.add(normalize(field));
+            }
+        }
+        terms.add(String.valueOf(id));
+        return new Doc(id, name, department, companyRole, joinedDate, terms.toArray(String[]::new));
+    }
+
+    private static Doc probe(String sortField, Object value, long id) {
+        return new Doc(id,
+                sortField.equals("name") ? (String) value : null,
+                sortField.equals("department") ? (String) value : null,
+                null,
+                sortField.equals("joinedDate") ? (LocalDate) value : null,
+                new String[0]);
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.index;
+
+import java.util.Arrays;
+
+// Sorted, duplicate-free list of employee ids for one trigram
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insert = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+        ids[insert] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    long get(int i) {
+        return ids[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long capacityBytes() {
+        return 16L + 16L + 8L * ids.length;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.index;
+
+/**
+ * One employee's attendance for one calendar year: bit {@code dayOfYear - 1} is set
+ * in {@code present} or {@code absent}, or in neither when the day is unmarked.
+ * Six words cover 366 days, so every range query is at most six popcounts per set.
+ */
+final class YearBitmap {
+
+    static final int WORDS = 6;
+    static final int BYTES = 2 * (16 + WORDS * 8) + 16;
+
+    final long[] present = new long[WORDS];
+    final long[] absent = new long[WORDS];
+
+    void mark(int day, boolean isPresent) {
+        int w = day >>> 6;
+        long bit = 1L << day;
+        if (isPresent) {
+            present[w] |= bit;
+            absent[w] &= ~bit;
+        } else {
+            absent[w] |= bit;
+            present[w] &= ~bit;
+        }
+    }
+
+    void clear(int day) {
+        int w = day >>> 6;
+        long bit = 1L << day;
+        present[w] &= ~bit;
+        absent[w] &= ~bit;
+    }
+
+    /** Set bits in days {@code [from, to]}. */
+    static int count(long[] words, int from, int to) {
+        int fw = from >>> 6;
+        int tw = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (fw == tw) {
+            return Long.bitCount(words[fw] & firstMask & lastMask);
+        }
+        int n = Long.bitCount(words[fw] & firstMask);
+        for (int w = fw + 1; w < tw; w++) {
+            n += Long.bitCount(words[w]);
+        }
+        return n + Long.bitCount(words[tw] & lastMask);
+    }
+
+    /**
+     * Runs of set bits in days {@code [from, to]}. {@code runs[0]} is the run still
+     * open at the end of the previous range and is left as the run ending at
+     * {@code to}; {@code runs[1]} is the longest run seen so far.
+     */
+    static void scanRuns(long[] words, int from, int to, int[] runs) {
+        int fw = from >>> 6;
+        int tw = to >>> 6;
+        for (int w = fw; w <= tw; w++) {
+            int lo = w == fw ? from & 63 : 0;
+            int hi = w == tw ? to & 63 : 63;
+            int width = hi - lo + 1;
+            long full = width == 64 ? -1L : (1L << width) - 1;
+            long x = (words[w] >>> lo) & full;
+
+            if (x == full) {
+                runs[0] += width;
+                runs[1] = Math.max(runs[1], runs[0]);
+                continue;
+            }
+            // low bits extend the open run
+            runs[0] += Long.numberOfTrailingZeros(~x);
+            runs[1] = Math.max(runs[1], runs[0]);
+            // longest run inside the word: each step shortens every run by one
+            int inner = 0;
+            for (long y = x; y != 0; y &= y >>> 1) {
+                inner++;
+            }
+            runs[1] = Math.max(runs[1], inner);
+            // high bits open the next run
+            long zeros = ~x & full;
+            runs[0] = width - 1 - (63 - Long.numberOfLeadingZeros(zeros));
+        }
+    }
+}
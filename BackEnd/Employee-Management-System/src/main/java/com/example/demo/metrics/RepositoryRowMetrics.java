@@ -0,0 +1,76 @@
+package com.example.demo.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adds {@code spring.data.repository.rows} next to Boot's
+ * {@code spring.data.repository.invocations} timer: rows returned per repository
+ * method call, tagged with the same {@code repository} and {@code method} names.
+ * Streams, counts and modifying queries are not counted.
+ */
+public class RepositoryRowMetrics implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public RepositoryRowMetrics(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxy, info) -> proxy.addAdvice(rowCounter(info.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor rowCounter(String repository) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                DistributionSummary.builder("spring.data.repository.rows")
+                        .description("Rows returned by a repository method")
+                        .baseUnit("rows")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .register(registry.getObject())
+                        .record(rows);
+            }
+            return result;
+        };
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> c) {
+            return c.size();
+        }
+        if (result instanceof Slice<?> s) {
+            return s.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> o) {
+            return o.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Map<?, ?> m) {
+            return m.size();
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean
+                || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.metrics;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records {@code http.server.requests.sql} for each request: the number of SQL
+ * statements it sent, tagged the same way as {@code http.server.requests}
+ * (method and URI template). N+1 regressions show up here as a higher count per
+ * endpoint.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public RequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        int[] statements = SqlStatementInspector.startCounting();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementInspector.stopCounting();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // unmatched paths would otherwise create one series per raw URI
+            if (pattern != null) {
+                DistributionSummary.builder("http.server.requests.sql")
+                        .description("SQL statements sent while serving one request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern.toString())
+                        .register(registry)
+                        .record(statements[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sees every SQL statement Hibernate prepares. It counts them for the current
+ * request (see {@link RequestMetricsFilter}) and logs a random sample of them to
+ * the {@code sql} logger as structured key/value events. This replaces
+ * {@code show-sql}, which printed every statement to stdout.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("sql");
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private final double sampleRate;
+
+    public SqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = STATEMENTS.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        if (sampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            // key/values land as fields under logging.structured.format; the message keeps plain logs readable
+            log.atInfo()
+                    .addKeyValue("statementInRequest", counter == null ? 0 : counter[0])
+                    .addKeyValue("sql", sql)
+                    .log("sampled sql: {}", sql);
+        }
+        return sql;
+    }
+
+    /** Starts counting statements on this thread; returns the counter to read afterwards. */
+    static int[] startCounting() {
+        int[] counter = new int[1];
+        STATEMENTS.set(counter);
+        return counter;
+    }
+
+    static void stopCounting() {
+        STATEMENTS.remove();
+    }
+}
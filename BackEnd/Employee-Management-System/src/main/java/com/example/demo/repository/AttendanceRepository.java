@@ -4,7 +4,13 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.dto.AttendanceSummaryDTO;
+import com.example.demo.dto.DepartmentAttendanceDTO;
 import com.example.demo.entity.Attendance;
 
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
@@ -16,4 +22,49 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             LocalDate start,
             LocalDate end
     );
+
+    // a.employee.id reads the foreign key; no join to employee
+    @Query("SELECT new com.example.demo.dto.AttendanceDTO(a.employee.id, a.date, a.status) FROM Attendance a "
+            + "WHERE a.employee.id = :employeeId AND a.date BETWEEN :start AND :end ORDER BY a.date")
+    List<AttendanceDTO> findRecords(@Param("employeeId") Long employeeId, @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    @Modifying
+    @Query("DELETE FROM Attendance a WHERE a.employee.id = :employeeId")
+    int deleteByEmployee(@Param("employeeId") Long employeeId);
+
+    // Upserts rely on uk_attendance_employee_date. The update sets the bound status again instead of
+    // reading the new row through VALUES(), deprecated since MySQL 8.0.20, or a row alias, which H2
+    // cannot parse. Both are plain INSERT ... SELECT, which MySQL and H2 accept alike; an unknown
+    // employee inserts nothing
+    @Modifying
+    @Query(value = "INSERT INTO attendance (employee_id, date, status) "
+            + "SELECT id, :date, :status FROM employee WHERE id = :employeeId "
+            + "ON DUPLICATE KEY UPDATE status = :status", nativeQuery = true)
+    int upsert(@Param("employeeId") Long employeeId, @Param("date") LocalDate date, @Param("status") String status);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance (employee_id, date, status) "
+            + "SELECT id, :date, :status FROM employee WHERE department = :department "
+            + "ON DUPLICATE KEY UPDATE status = :status", nativeQuery = true)
+    int upsertDepartment(@Param("department") String department, @Param("date") LocalDate date,
+            @Param("status") String status);
+
+    @Query("SELECT new com.example.demo.dto.AttendanceSummaryDTO(e.id, e.name, e.department, "
+            + "SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END)) "
+            + "FROM Attendance a JOIN a.employee e "
+            + "WHERE a.date BETWEEN :start AND :end AND (:department IS NULL OR e.department = :department) "
+            + "GROUP BY e.id, e.name, e.department ORDER BY e.id")
+    List<AttendanceSummaryDTO> summarizeByEmployee(@Param("start") LocalDate start, @Param("end") LocalDate end,
+            @Param("department") String department);
+
+    @Query("SELECT new com.example.demo.dto.DepartmentAttendanceDTO(e.department, COUNT(DISTINCT e.id), "
+            + "SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END)) "
+            + "FROM Attendance a JOIN a.employee e "
+            + "WHERE a.date BETWEEN :start AND :end "
+            + "GROUP BY e.department ORDER BY e.department")
+    List<DepartmentAttendanceDTO> summarizeByDepartment(@Param("start") LocalDate start,
+            @Param("end") LocalDate end);
 }
@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.entity.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT m FROM EmailOutbox m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+            "ORDER BY m.nextAttemptAt")
+    List<EmailOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional claim so two dispatchers never send the same row
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox m SET m.status = 'SENDING', m.lockedAt = :now " +
+            "WHERE m.id = :id AND m.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Rows left in SENDING by a crashed dispatcher go back to the queue
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox m SET m.status = 'PENDING' WHERE m.status = 'SENDING' AND m.lockedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
+}
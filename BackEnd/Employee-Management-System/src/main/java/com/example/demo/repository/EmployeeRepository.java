@@ -1,28 +1,85 @@
 package com.example.demo.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.EmployeeDTO;
 import com.example.demo.entity.Employee;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    List<Employee> findByNameContainingIgnoreCase(String name);
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    // nameLower / departmentLower are generated LOWER() columns, see V2__lookup_indexes.sql
+    @Query("SELECT e FROM Employee e WHERE e.nameLower LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<Employee> findByNameContainingIgnoreCase(@Param("name") String name);
 
     // Optional: search by department
-    List<Employee> findByDepartmentContainingIgnoreCase(String department);
+    @Query("SELECT e FROM Employee e WHERE e.departmentLower LIKE LOWER(CONCAT('%', :department, '%'))")
+    List<Employee> findByDepartmentContainingIgnoreCase(@Param("department") String department);
 
     Optional<Employee> findByUsername(String username);
 
     List<Employee> findByEmail(String email);
 
-    @org.springframework.data.jpa.repository.Query("SELECT e FROM Employee e WHERE " +
-            "LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(e.department) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+    @Query("SELECT e.username FROM Employee e WHERE e.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT e FROM Employee e WHERE " +
+            "e.nameLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "e.departmentLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(e.companyRole) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "CAST(e.id AS string) LIKE CONCAT('%', :keyword, '%')")
-    org.springframework.data.domain.Page<Employee> searchEmployees(
-            @org.springframework.data.repository.query.Param("keyword") String keyword,
-            org.springframework.data.domain.Pageable pageable);
+    Page<Employee> searchEmployees(@Param("keyword") String keyword, Pageable pageable);
+
+    // 🔹 List-screen projections: only the summary columns leave MySQL, no managed entities
+
+    @Query("SELECT new com.example.demo.dto.EmployeeDTO(e.id, e.name, e.email, e.department, " +
+            "e.companyRole, e.address, e.joinedDate, e.photoRef, e.version) FROM Employee e")
+    Page<EmployeeDTO> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.demo.dto.EmployeeDTO(e.id, e.name, e.email, e.department, " +
+            "e.companyRole, e.address, e.joinedDate, e.photoRef, e.version) FROM Employee e WHERE " +
+            "e.nameLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "e.departmentLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(e.companyRole) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "CAST(e.id AS string) LIKE CONCAT('%', :keyword, '%')",
+            countQuery = "SELECT COUNT(e) FROM Employee e WHERE " +
+                    "e.nameLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "e.departmentLower LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(e.companyRole) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "CAST(e.id AS string) LIKE CONCAT('%', :keyword, '%')")
+    Page<EmployeeDTO> searchSummaries(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT new com.example.demo.dto.EmployeeDTO(e.id, e.name, e.email, e.department, " +
+            "e.companyRole, e.address, e.joinedDate, e.photoRef, e.version) FROM Employee e WHERE e.id IN :ids")
+    List<EmployeeDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Id-ordered batches for rebuilding in-memory indexes
+    @Query("SELECT new com.example.demo.dto.EmployeeDTO(e.id, e.name, e.email, e.department, " +
+            "e.companyRole, e.address, e.joinedDate, e.photoRef, e.version) FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<EmployeeDTO> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.department = :department")
+    List<Long> findIdsByDepartment(@Param("department") String department);
+
+    @Query("SELECT e.username FROM Employee e WHERE e.id IN :ids AND e.username IS NOT NULL")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.username FROM Employee e WHERE e.department = :department AND e.username IS NOT NULL")
+    List<String> findUsernamesByDepartment(@Param("department") String department);
+
+    // 🔹 Dashboard aggregates, used to reconcile the in-memory counters
+
+    @Query("SELECT e.department, COUNT(e) FROM Employee e GROUP BY e.department")
+    List<Object[]> countByDepartment();
+
+    @Query("SELECT e.joinedDate, COUNT(e) FROM Employee e WHERE e.joinedDate >= :since GROUP BY e.joinedDate")
+    List<Object[]> countByJoinedDateSince(@Param("since") LocalDate since);
 }
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.example.demo.dto.BulkEmployeeRequest;
+import com.example.demo.dto.EmployeeDTO;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Keyset scan over the summary projection: returns up to {@code limit} rows ordered by
+     * {@code sortField} then id, strictly after the ({@code afterValue}, {@code afterId})
+     * position. A null {@code afterId} starts from the beginning.
+     */
+    List<EmployeeDTO> scrollSummaries(String keyword, String sortField, boolean descending,
+            Object afterValue, Long afterId, int limit);
+
+    long countSummaries(String keyword);
+
+    // Table statistics estimate; cheap but can be off by a few percent on InnoDB
+    Long estimateCount();
+
+    /**
+     * One set-based UPDATE over the employees in {@code ids}, or in {@code department}
+     * when ids is null. Bumps version and updatedAt so ETags change. Returns rows updated.
+     */
+    int bulkUpdate(Collection<Long> ids, String department, BulkEmployeeRequest changes);
+
+    /**
+     * Deletes the selected employees with their attendance and USER logins, one statement
+     * per table. Returns employees deleted.
+     */
+    int bulkDelete(Collection<Long> ids, String department);
+}
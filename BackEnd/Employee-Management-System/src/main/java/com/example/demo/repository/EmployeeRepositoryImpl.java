@@ -0,0 +1,164 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.dto.BulkEmployeeRequest;
+import com.example.demo.dto.EmployeeDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "e.id",
+            "name", "e.name",
+            "department", "e.department",
+            "joinedDate", "e.joinedDate");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EmployeeDTO> scrollSummaries(String keyword, String sortField, boolean descending,
+            Object afterValue, Long afterId, int limit) {
+        String column = SORT_COLUMNS.get(sortField);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        String dir = descending ? "DESC" : "ASC";
+        String cmp = descending ? "<" : ">";
+
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addKeyword(keyword, where, params);
+
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            if (column.equals("e.id")) {
+                where.add("e.id " + cmp + " :afterId");
+            } else if (afterValue == null) {
+                // MySQL sorts NULL lowest: first in ASC, last in DESC
+                where.add(descending
+                        ? "(" + column + " IS NULL AND e.id < :afterId)"
+                        : "((" + column + " IS NULL AND e.id > :afterId) OR " + column + " IS NOT NULL)");
+            } else {
+                params.put("afterValue", afterValue);
+                where.add("(" + column + " " + cmp + " :afterValue OR (" + column + " = :afterValue AND e.id "
+                        + cmp + " :afterId)" + (descending ? " OR " + column + " IS NULL" : "") + ")");
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.example.demo.dto.EmployeeDTO(e.id, e.name, e.email, e.department, "
+                        + "e.companyRole, e.address, e.joinedDate, e.photoRef, e.version) FROM Employee e");
+        if (!where.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        jpql.append(" ORDER BY ");
+        if (!column.equals("e.id")) {
+            jpql.append(column).append(' ').append(dir).append(", ");
+        }
+        jpql.append("e.id ").append(dir);
+
+        TypedQuery<EmployeeDTO> query = entityManager.createQuery(jpql.toString(), EmployeeDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countSummaries(String keyword) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addKeyword(keyword, where, params);
+        String jpql = "SELECT COUNT(e) FROM Employee e" + (where.isEmpty() ? "" : " WHERE " + where.get(0));
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public Long estimateCount() {
+        try {
+            Object rows = entityManager.createNativeQuery(
+                    "SELECT TABLE_ROWS FROM information_schema.TABLES "
+                            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'employee'")
+                    .getSingleResult();
+            return rows == null ? null : ((Number) rows).longValue();
+        } catch (PersistenceException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int bulkUpdate(Collection<Long> ids, String department, BulkEmployeeRequest changes) {
+        List<String> set = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        set.add("e.updatedAt = :now");
+        params.put("now", LocalDateTime.now());
+        if (changes.getNewDepartment() != null) {
+            set.add("e.department = :newDepartment");
+            params.put("newDepartment", changes.getNewDepartment());
+        }
+        if (changes.getCompanyRole() != null) {
+            set.add("e.companyRole = :companyRole");
+            params.put("companyRole", changes.getCompanyRole());
+        }
+        if (changes.getSalary() != null) {
+            set.add("e.salary = :salary");
+            params.put("salary", changes.getSalary());
+        } else if (changes.getSalaryPercent() != null) {
+            set.add("e.salary = ROUND(e.salary * :factor, 2)");
+            params.put("factor", 1 + changes.getSalaryPercent() / 100);
+        }
+        // VERSIONED increments @Version like a managed update would
+        Query query = entityManager.createQuery("UPDATE VERSIONED Employee e SET " + String.join(", ", set)
+                + " WHERE " + selection(ids, department, params));
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int bulkDelete(Collection<Long> ids, String department) {
+        Map<String, Object> params = new HashMap<>();
+        String where = selection(ids, department, params);
+        execute("DELETE FROM Attendance a WHERE a.employee.id IN (SELECT e.id FROM Employee e WHERE " + where + ")",
+                params);
+        // Offboarded employees lose their login; ADMIN accounts are never removed here
+        execute("DELETE FROM User u WHERE u.role = 'USER' AND u.username IN "
+                + "(SELECT e.username FROM Employee e WHERE " + where + ")", params);
+        return execute("DELETE FROM Employee e WHERE " + where, params);
+    }
+
+    private int execute(String jpql, Map<String, Object> params) {
+        Query query = entityManager.createQuery(jpql);
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    private static String selection(Collection<Long> ids, String department, Map<String, Object> params) {
+        if (ids != null) {
+            params.put("ids", ids);
+            return "e.id IN :ids";
+        }
+        params.put("department", department);
+        return "e.department = :department";
+    }
+
+    private static void addKeyword(String keyword, List<String> where, Map<String, Object> params) {
+        if (keyword == null || keyword.isBlank()) {
+            return;
+        }
+        where.add("(e.nameLower LIKE :kw OR e.departmentLower LIKE :kw OR "
+                + "LOWER(e.companyRole) LIKE :kw OR CAST(e.id AS string) LIKE :kw)");
+        params.put("kw", "%" + keyword.trim().toLowerCase() + "%");
+    }
+}
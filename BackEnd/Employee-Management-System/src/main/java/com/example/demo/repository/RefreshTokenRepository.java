@@ -0,0 +1,53 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.entity.RefreshToken;
+
+import jakarta.persistence.LockModeType;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Row lock so two concurrent refreshes with the same token cannot both rotate it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findForRotation(@Param("tokenHash") String tokenHash);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // 🔹 Revocation: copy the still-live access token ids into revoked_token, then mark the rows.
+    // Callers run both in one transaction; the revokedAt filter keeps ids from being copied twice.
+
+    @Modifying
+    @Query("INSERT INTO RevokedToken (tokenId, expiresAt, revokedAt) " +
+            "SELECT r.accessTokenId, r.accessExpiresAt, :now FROM RefreshToken r " +
+            "WHERE r.familyId = :familyId AND r.revokedAt IS NULL AND r.accessExpiresAt > :now")
+    int revokeAccessTokensOfFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("INSERT INTO RevokedToken (tokenId, expiresAt, revokedAt) " +
+            "SELECT r.accessTokenId, r.accessExpiresAt, :now FROM RefreshToken r " +
+            "WHERE r.username IN :usernames AND r.revokedAt IS NULL AND r.accessExpiresAt > :now")
+    int revokeAccessTokensOfUsers(@Param("usernames") Collection<String> usernames,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.username IN :usernames AND r.revokedAt IS NULL")
+    int revokeUsers(@Param("usernames") Collection<String> usernames, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
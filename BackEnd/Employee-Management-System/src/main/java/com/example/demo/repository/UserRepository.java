@@ -1,15 +1,53 @@
 package com.example.demo.repository;
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.entity.User;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Cached for login; every save evicts so password changes are seen at once.
+    // The instance is shared through the cache: never modify it, change users with the updates below
+    @Cacheable(value = CacheConfig.USERS, key = "#p0", unless = "#result == null")
     Optional<User> findByUsername(String username);
 
-    Optional<User> findByResetToken(String resetToken);
+    @Override
+    @CacheEvict(value = CacheConfig.USERS, key = "#p0.username")
+    <S extends User> S save(S user);
+
+    @Override
+    @CacheEvict(value = CacheConfig.USERS, key = "#p0.username")
+    void delete(User user);
+
+    // Rehash after a successful login, unless the password changed in the meantime
+    @Modifying
+    @Transactional
+    @CacheEvict(value = CacheConfig.USERS, key = "#p0")
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.username = :username AND u.password = :oldHash")
+    int upgradePassword(@Param("username") String username, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+
+    @Modifying
+    @Transactional
+    @CacheEvict(value = CacheConfig.USERS, key = "#p0")
+    @Query("UPDATE User u SET u.email = :email WHERE u.username = :username")
+    int updateEmail(@Param("username") String username, @Param("email") String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -11,16 +11,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationList revocations;
 
-    public JwtFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtFilter(VerifiedTokenCache tokenCache, TokenRevocationList revocations) {
+        this.tokenCache = tokenCache;
+        this.revocations = revocations;
     }
 
     @Override
@@ -33,7 +34,6 @@ public class JwtFilter extends OncePerRequestFilter {
 
         // Allow login without token
         if (path.startsWith("/api/auth")) {
-            System.out.println("JwtFilter skipping auth for path: " + path);
             filterChain.doFilter(request, response);
             return;
         }
@@ -44,15 +44,18 @@ public class JwtFilter extends OncePerRequestFilter {
 
             String token = authHeader.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
+            // One parse per token lifetime; repeat requests are served from the cache
+            VerifiedToken verified = tokenCache.verify(token);
 
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
+            // In-memory Bloom filter; a revoked token fails even while it is still cached as verified
+            if (verified != null && !revocations.isRevoked(verified.tokenId())) {
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username,
+                        verified.username(),
                         null,
-                        List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
+                        List.of(new SimpleGrantedAuthority("ROLE_" + verified.role().toUpperCase())));
+                // Long-lived responses such as the change stream re-check the token by its id and expiry
+                authentication.setDetails(verified);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
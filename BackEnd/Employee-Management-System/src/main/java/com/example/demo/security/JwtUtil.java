@@ -2,60 +2,130 @@ package com.example.demo.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
-import com.example.demo.entity.*;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens. Each token carries a random id ({@code jti}) so it
+ * can be revoked, and names its signing key in the {@code kid} header so keys can be
+ * rotated: add the new key under {@code app.jwt.keys}, point {@code app.jwt.active-kid}
+ * at it, and remove the old key one access-token lifetime later. Tokens from before the
+ * {@code kid} header are checked only against {@code app.jwt.legacy-kid}, and are
+ * rejected once that key is removed or when it is not set.
+ */
 @Component
 public class JwtUtil {
 
-    // MUST be at least 32 characters (256 bits)
-    private final String SECRET_KEY =
-            "mySuperSecretKeyForJwtAuthentication12345";
+    public record IssuedToken(String token, UUID id, Instant expiresAt) {
+    }
+
+    private final Map<String, Key> keys;
+    private final String activeKid;
+    private final Key activeKey;
+    private final String legacyKid;
+    private final Duration accessTtl;
+
+    // Built once: the parser is immutable and thread-safe
+    private final JwtParser parser;
+
+    @Autowired
+    public JwtUtil(Environment environment,
+            @Value("${app.jwt.active-kid}") String activeKid,
+            @Value("${app.jwt.legacy-kid:}") String legacyKid,
+            @Value("${app.jwt.access-ttl:15m}") Duration accessTtl) {
+        this(Binder.get(environment).bind("app.jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElseThrow(() -> new IllegalStateException("app.jwt.keys is not configured")), activeKid, legacyKid,
+                accessTtl);
+    }
+
+    public JwtUtil(Map<String, String> secrets, String activeKid, Duration accessTtl) {
+        this(secrets, activeKid, null, accessTtl);
+    }
 
-    private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // Secrets MUST be at least 32 bytes (256 bits) for HS256
+    public JwtUtil(Map<String, String> secrets, String activeKid, String legacyKid, Duration accessTtl) {
+        Map<String, Key> byKid = new HashMap<>();
+        secrets.forEach((kid, secret) -> byKid.put(kid, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))));
+        this.keys = Map.copyOf(byKid);
+        this.activeKid = activeKid;
+        this.activeKey = keys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("No key configured for app.jwt.active-kid " + activeKid);
+        }
+        this.legacyKid = legacyKid == null || legacyKid.isBlank() ? null : legacyKid;
+        this.accessTtl = accessTtl;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // tokens issued before kid existed were signed with the original key, never a later one
+                        String kid = header.getKeyId() == null ? JwtUtil.this.legacyKid : header.getKeyId();
+                        if (kid == null) {
+                            throw new UnsupportedJwtException("Token has no signing key id");
+                        }
+                        Key key = keys.get(kid);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key id " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
-    public String generateToken(String username,String role) {
-        return Jwts.builder()
+    public IssuedToken issue(String username, String role) {
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(accessTtl);
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKid)
+                .setId(id.toString())
                 .setSubject(username)
                 .claim("role", role)
-
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hour
-                .signWith(key, SignatureAlgorithm.HS256)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(activeKey, SignatureAlgorithm.HS256)
                 .compact();
+        return new IssuedToken(token, id, expiresAt);
+    }
+
+    public Duration getAccessTtl() {
+        return accessTtl;
+    }
+
+    // Verifies the signature and expiry once; throws JwtException when the token is not valid
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
-        } catch (JwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
     
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parseClaims(token).get("role", String.class);
     }
 
 }
@@ -0,0 +1,124 @@
+package com.example.demo.security;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token buckets for login attempts, one set keyed by client IP and one by username,
+ * checked before the user is looked up so a credential-stuffing burst is turned away
+ * without touching the database.
+ *
+ * <p>Each bucket is one slot of an {@link AtomicLongArray} holding its theoretical
+ * arrival time (GCRA, a token bucket written as a single timestamp) and is updated by
+ * compare-and-set, so there are no locks and nothing is allocated per key. Keys are
+ * hashed onto a fixed number of stripes: memory stays bounded however many usernames
+ * an attacker makes up, and a collision only means two keys share one budget.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Buckets ips;
+    private final Buckets users;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Counter ipRejections;
+    private final Counter userRejections;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry registry,
+            @Value("${app.login.throttle.stripes:4096}") int stripes,
+            @Value("${app.login.throttle.ip.capacity:100}") int ipCapacity,
+            @Value("${app.login.throttle.ip.refill-per-minute:300}") int ipRefill,
+            @Value("${app.login.throttle.user.capacity:10}") int userCapacity,
+            @Value("${app.login.throttle.user.refill-per-minute:10}") int userRefill) {
+        this(registry, stripes, ipCapacity, ipRefill, userCapacity, userRefill, System::nanoTime);
+    }
+
+    LoginThrottle(MeterRegistry registry, int stripes, int ipCapacity, int ipRefill, int userCapacity,
+            int userRefill, LongSupplier clock) {
+        this.ips = new Buckets(stripes, ipCapacity, ipRefill);
+        this.users = new Buckets(stripes, userCapacity, userRefill);
+        this.clock = clock;
+        // slots start at 0, so time is measured from construction to keep it non-negative
+        this.origin = clock.getAsLong();
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(registry);
+        this.userRejections = Counter.builder("auth.login.throttled").tag("key", "user").register(registry);
+    }
+
+    /**
+     * Takes one attempt from the client's bucket and then the username's. Returns 0
+     * when the attempt may proceed, otherwise the whole seconds until it would be allowed.
+     */
+    public long tryAcquire(String username, String clientIp) {
+        long now = clock.getAsLong() - origin;
+        long wait = ips.tryAcquire(clientIp == null ? "" : clientIp, now);
+        if (wait > 0) {
+            ipRejections.increment();
+            return toSeconds(wait);
+        }
+        wait = users.tryAcquire(username == null ? "" : username.toLowerCase(Locale.ROOT), now);
+        if (wait > 0) {
+            userRejections.increment();
+            return toSeconds(wait);
+        }
+        return 0;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    static final class Buckets {
+
+        private final AtomicLongArray arrival;
+        private final int mask;
+        // nanos per token, and how far ahead of now the arrival time may run (the burst)
+        private final long interval;
+        private final long tolerance;
+
+        Buckets(int stripes, int capacity, int refillPerMinute) {
+            this(stripes, capacity, refillPerMinute < 1 ? 0 : TimeUnit.MINUTES.toNanos(1) / refillPerMinute);
+        }
+
+        // One token every intervalNanos, for refill rates slower than one a minute
+        Buckets(int stripes, int capacity, long intervalNanos) {
+            if (capacity < 1 || intervalNanos < 1) {
+                throw new IllegalArgumentException("Throttle capacity and refill must be positive");
+            }
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+            this.arrival = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.interval = intervalNanos;
+            this.tolerance = interval * (capacity - 1);
+        }
+
+        /** 0 if a token was taken, otherwise nanos until one is available. */
+        long tryAcquire(String key, long now) {
+            int slot = index(key);
+            while (true) {
+                long current = arrival.get(slot);
+                long start = Math.max(current, now);
+                if (start - now > tolerance) {
+                    return start - now - tolerance;
+                }
+                if (arrival.compareAndSet(slot, current, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        private int index(String key) {
+            int h = key.hashCode() * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
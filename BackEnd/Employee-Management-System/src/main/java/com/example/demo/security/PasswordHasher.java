@@ -0,0 +1,79 @@
+package com.example.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Checks login passwords on a small pool of platform threads sized to the CPUs, so
+ * BCrypt never runs on (or exhausts) the request threads. The queue is bounded: when
+ * it is full {@link #verify} throws {@link RejectedExecutionException} at once and
+ * the caller answers 429 instead of queueing work that would time out anyway.
+ */
+@Component
+public class PasswordHasher {
+
+    public record Verification(boolean matched, String upgradedHash) {
+    }
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    // Unknown users are checked against this so they cost the same as known ones
+    private final String dummyHash;
+
+    public PasswordHasher(PasswordEncoder encoder, MeterRegistry registry,
+            @Value("${app.login.hash.threads:0}") int threads,
+            @Value("${app.login.hash.queue:64}") int queue) {
+        this.encoder = encoder;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("password-hasher-");
+        factory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), factory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-hasher", Tags.empty()).bindTo(registry);
+        this.rejected = Counter.builder("auth.login.rejected").tag("reason", "hasher-busy").register(registry);
+        this.dummyHash = encoder.encode("not-a-password");
+    }
+
+    /**
+     * Checks {@code raw} against {@code encoded} (null for an unknown user). On a match
+     * with an outdated encoding, such as a {@code {noop}} plaintext row, the result
+     * carries a fresh hash to store.
+     */
+    public CompletableFuture<Verification> verify(String raw, String encoded) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (encoded == null) {
+                    encoder.matches(raw, dummyHash);
+                    return new Verification(false, null);
+                }
+                if (!encoder.matches(raw, encoded)) {
+                    return new Verification(false, null);
+                }
+                return new Verification(true, encoder.upgradeEncoding(encoded) ? encoder.encode(raw) : null);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
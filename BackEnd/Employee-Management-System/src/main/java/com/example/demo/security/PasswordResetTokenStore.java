@@ -0,0 +1,229 @@
+package com.example.demo.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.entity.PasswordResetToken;
+import com.example.demo.repository.PasswordResetTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Outstanding password-reset links. The {@code password_reset_token} table holds the
+ * SHA-256 of each token and is what survives restarts. This node keeps a map of the
+ * same rows, filled at startup and on issue, so checking a token is a hash lookup.
+ * A {@link TimingWheel} drops entries as they expire, and the same sweep deletes
+ * expired rows by their index.
+ *
+ * <p>Consuming a token deletes its row by primary key. Only the request whose DELETE
+ * removed the row may use it, so a link works once even when two nodes see it at the
+ * same time. A token this node has not seen, for example one issued elsewhere, is
+ * looked up in the table by primary key.
+ *
+ * <p>Issuing is limited per email address with a GCRA bucket of its own, checked before
+ * the user lookup, so a loop on forgot-password costs neither queries nor mail. Buckets
+ * live in a bounded map and are dropped once idle long enough to be full again.
+ */
+@Component
+public class PasswordResetTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordResetTokenStore.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private record Entry(Long userId, long expiresAtMillis) {
+    }
+
+    private final PasswordResetTokenRepository repository;
+    private final Duration ttl;
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    // Issuing a new link retires the user's previous one
+    private final Map<Long, String> latestByUser = new ConcurrentHashMap<>();
+    private final TimingWheel<String> wheel;
+    // Theoretical arrival time per normalized address, in nanos since origin
+    private final Cache<String, AtomicLong> issuance;
+    private final long interval;
+    private final long tolerance;
+    private final long origin = System.nanoTime();
+    private final Counter throttled;
+
+    public PasswordResetTokenStore(PasswordResetTokenRepository repository, MeterRegistry registry,
+            @Value("${app.password-reset.ttl:1h}") Duration ttl,
+            @Value("${app.password-reset.sweep-ms:60000}") long sweepMillis,
+            @Value("${app.password-reset.throttle.max-keys:100000}") long maxKeys,
+            @Value("${app.password-reset.throttle.capacity:3}") int capacity,
+            @Value("${app.password-reset.throttle.refill-interval:5m}") Duration refillInterval) {
+        this.repository = repository;
+        this.ttl = ttl;
+        // One turn covers a whole TTL, so each timer is visited exactly when it is due
+        int slots = (int) Math.min(4096, ttl.toMillis() / sweepMillis + 1);
+        this.wheel = new TimingWheel<>(sweepMillis, slots, System.currentTimeMillis());
+        this.interval = refillInterval.toNanos();
+        this.tolerance = interval * (capacity - 1);
+        this.issuance = Caffeine.newBuilder()
+                .expireAfterAccess(refillInterval.multipliedBy(capacity))
+                .maximumSize(maxKeys)
+                .build();
+        this.throttled = Counter.builder("auth.password-reset.throttled").register(registry);
+        Gauge.builder("auth.password-reset.tokens", tokens, Map::size).register(registry);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** 0 if a link may be sent to {@code email} now, otherwise whole seconds to wait. */
+    public long tryAcquire(String email) {
+        AtomicLong arrival = issuance.get(email.trim().toLowerCase(Locale.ROOT), key -> new AtomicLong());
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            if (start - now > tolerance) {
+                throttled.increment();
+                long wait = start - now - tolerance;
+                return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            }
+            if (arrival.compareAndSet(current, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Creates a token for the user and returns it; only its hash is stored. Joins the
+     * caller's transaction, and the in-memory entry appears once that commits.
+     */
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = hash(token);
+        LocalDateTime now = LocalDateTime.now();
+
+        repository.deleteByUserId(userId);
+        PasswordResetToken row = new PasswordResetToken();
+        row.setTokenHash(hash);
+        row.setUserId(userId);
+        row.setCreatedAt(now);
+        row.setExpiresAt(now.plus(ttl));
+        repository.save(row);
+
+        Entry entry = new Entry(userId, toMillis(row.getExpiresAt()));
+        afterCommit(() -> remember(hash, entry));
+        return token;
+    }
+
+    /**
+     * Uses up a token and returns the id of the user it was issued to, or null if the
+     * token is unknown, expired or already used.
+     */
+    public Long consume(String token) {
+        String hash = hash(token);
+        long now = System.currentTimeMillis();
+        Entry entry = tokens.remove(hash);
+        if (entry == null) {
+            entry = repository.findById(hash)
+                    .map(row -> new Entry(row.getUserId(), toMillis(row.getExpiresAt())))
+                    .orElse(null);
+            if (entry == null) {
+                return null;
+            }
+        }
+        latestByUser.remove(entry.userId(), hash);
+        if (entry.expiresAtMillis() <= now || repository.consume(hash, LocalDateTime.now()) == 0) {
+            return null;
+        }
+        return entry.userId();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = 0;
+        for (PasswordResetToken row : repository.findActive(LocalDateTime.now())) {
+            remember(row.getTokenHash(), new Entry(row.getUserId(), toMillis(row.getExpiresAt())));
+            loaded++;
+        }
+        log.info("Password reset tokens loaded: {}", loaded);
+    }
+
+    @Scheduled(fixedDelayString = "${app.password-reset.sweep-ms:60000}",
+            initialDelayString = "${app.password-reset.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            wheel.advance(now, hash -> {
+                Entry entry = tokens.get(hash);
+                if (entry != null && entry.expiresAtMillis() <= now && tokens.remove(hash, entry)) {
+                    latestByUser.remove(entry.userId(), hash);
+                }
+            });
+        }
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired password reset tokens", deleted);
+        }
+    }
+
+    private void remember(String hash, Entry entry) {
+        tokens.put(hash, entry);
+        String previous = latestByUser.put(entry.userId(), hash);
+        if (previous != null && !previous.equals(hash)) {
+            tokens.remove(previous);
+        }
+        synchronized (wheel) {
+            wheel.schedule(hash, entry.expiresAtMillis());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable set of revoked token ids. A Bloom filter answers the usual "not revoked"
+ * case with a few multiplies and array reads. Its rare positives are confirmed
+ * against the ids kept as a sorted {@code long[]} of (most, least significant) pairs,
+ * so there are no false positives and no per-id objects.
+ */
+final class RevokedTokenIndex {
+
+    static final RevokedTokenIndex EMPTY = of(List.of(), 0.01);
+
+    private final long[] bits;
+    private final int bitMask;
+    private final int hashes;
+    private final long[] sorted;
+
+    private RevokedTokenIndex(long[] bits, int hashes, long[] sorted) {
+        this.bits = bits;
+        this.bitMask = bits.length * Long.SIZE - 1;
+        this.hashes = hashes;
+        this.sorted = sorted;
+    }
+
+    static RevokedTokenIndex of(Collection<UUID> ids, double falsePositiveRate) {
+        UUID[] ordered = ids.stream().distinct().sorted(RevokedTokenIndex::compare).toArray(UUID[]::new);
+        long[] sorted = new long[ordered.length * 2];
+        for (int i = 0; i < ordered.length; i++) {
+            sorted[2 * i] = ordered[i].getMostSignificantBits();
+            sorted[2 * i + 1] = ordered[i].getLeastSignificantBits();
+        }
+
+        // m = -n ln p / (ln 2)^2 rounded up to a power of two, k = m/n ln 2
+        int n = Math.max(ordered.length, 64);
+        double m = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int words = Math.max(1, Integer.highestOneBit((int) Math.min(m / Long.SIZE, 1 << 26) * 2 - 1));
+        int hashes = Math.max(1, (int) Math.round((double) words * Long.SIZE / n * Math.log(2)));
+        RevokedTokenIndex index = new RevokedTokenIndex(new long[words], Math.min(hashes, 16), sorted);
+        for (UUID id : ordered) {
+            index.addToFilter(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+        return index;
+    }
+
+    boolean contains(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        return mightContain(msb, lsb) && binarySearch(msb, lsb);
+    }
+
+    int size() {
+        return sorted.length / 2;
+    }
+
+    long filterBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    private void addToFilter(long msb, long lsb) {
+        long h1 = mix(msb ^ Long.rotateLeft(lsb, 32));
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((h1 + i * h2) & bitMask);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long msb, long lsb) {
+        long h1 = mix(msb ^ Long.rotateLeft(lsb, 32));
+        long h2 = mix(lsb) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) ((h1 + i * h2) & bitMask);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean binarySearch(long msb, long lsb) {
+        int low = 0;
+        int high = sorted.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(sorted[2 * mid], sorted[2 * mid + 1], msb, lsb);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compare(UUID a, UUID b) {
+        return compare(a.getMostSignificantBits(), a.getLeastSignificantBits(), b.getMostSignificantBits(),
+                b.getLeastSignificantBits());
+    }
+
+    private static int compare(long msbA, long lsbA, long msbB, long lsbB) {
+        int cmp = Long.compare(msbA, msbB);
+        return cmp != 0 ? cmp : Long.compare(lsbA, lsbB);
+    }
+
+    // murmur3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: deadlines are rounded up to a tick and dropped into the slot
+ * for that tick, so scheduling is O(1) and each {@link #advance} only visits the slots
+ * that came due. Deadlines further out than one turn of the wheel sit in their slot
+ * until the turn they belong to. Not thread-safe; callers synchronize.
+ */
+final class TimingWheel<K> {
+
+    private record Timer<K>(K key, long tick) {
+    }
+
+    private final long tickMillis;
+    private final ArrayDeque<Timer<K>>[] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (tickMillis < 1 || slotCount < 1) {
+            throw new IllegalArgumentException("Timing wheel tick and slot count must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    void schedule(K key, long deadlineMillis) {
+        // Rounded up, so a key is never expired before its deadline; past deadlines
+        // go in the next tick
+        long tick = Math.max(currentTick + 1, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        slots[(int) (tick % slots.length)].add(new Timer<>(key, tick));
+        size++;
+    }
+
+    /** Hands every key whose deadline has passed by {@code nowMillis} to {@code expired}. */
+    void advance(long nowMillis, Consumer<K> expired) {
+        long target = nowMillis / tickMillis;
+        // After a long pause every slot is visited once, not once per missed tick
+        long stop = Math.min(target, currentTick + slots.length);
+        while (currentTick < stop) {
+            currentTick++;
+            Iterator<Timer<K>> timers = slots[(int) (currentTick % slots.length)].iterator();
+            while (timers.hasNext()) {
+                Timer<K> timer = timers.next();
+                if (timer.tick() <= target) {
+                    timers.remove();
+                    size--;
+                    expired.accept(timer.key());
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+    }
+
+    int size() {
+        return size;
+    }
+}
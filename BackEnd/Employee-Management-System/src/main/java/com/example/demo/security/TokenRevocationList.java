@@ -0,0 +1,81 @@
+package com.example.demo.security;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory copy of the {@code revoked_token} table that {@link JwtFilter} consults on
+ * every request. The check reads a volatile snapshot ({@link RevokedTokenIndex}) and
+ * never touches the database. The snapshot is rebuilt from the table on a schedule,
+ * so revocations made on another node apply within {@code app.jwt.revocation.refresh-ms},
+ * and at once after a revocation on this node. Rows leave the table when the token
+ * they name expires, which keeps the set as small as the access-token lifetime allows.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository repository;
+    private final double falsePositiveRate;
+    private final Counter rejected;
+    private volatile RevokedTokenIndex index = RevokedTokenIndex.EMPTY;
+
+    public TokenRevocationList(RevokedTokenRepository repository, MeterRegistry registry,
+            @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rejected = Counter.builder("jwt.revoked.rejected").register(registry);
+        Gauge.builder("jwt.revoked.size", this, list -> list.index.size()).register(registry);
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        if (tokenId != null && index.contains(tokenId)) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-ms:30000}",
+            initialDelayString = "${app.jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        repository.deleteExpired(LocalDateTime.now());
+        reload();
+    }
+
+    // Read-only, so it is safe from an after-commit callback
+    public void reload() {
+        List<UUID> ids = new ArrayList<>();
+        for (String id : repository.findActiveIds(LocalDateTime.now())) {
+            ids.add(UUID.fromString(id));
+        }
+        load(ids);
+    }
+
+    /** Replaces the snapshot; used by {@link #reload()} and by benchmarks that have no database. */
+    public void load(List<UUID> ids) {
+        RevokedTokenIndex next = RevokedTokenIndex.of(ids, falsePositiveRate);
+        if (next.size() != index.size()) {
+            log.info("Token revocation list reloaded: {} ids, {} byte filter", next.size(), next.filterBytes());
+        }
+        index = next;
+    }
+}
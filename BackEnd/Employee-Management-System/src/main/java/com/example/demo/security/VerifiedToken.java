@@ -0,0 +1,8 @@
+package com.example.demo.security;
+
+import java.util.UUID;
+
+// Claims the filter needs, extracted from a token whose signature has been checked.
+// tokenId is the jti checked against the revocation list (null on tokens issued before it existed)
+public record VerifiedToken(String username, String role, UUID tokenId, long expiresAtMillis) {
+}
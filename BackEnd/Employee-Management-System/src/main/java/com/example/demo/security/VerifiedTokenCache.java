@@ -0,0 +1,109 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens that already passed signature verification, keyed by the
+ * SHA-256 of the whole token so raw tokens are never retained. Entries expire with
+ * the token itself, so a repeat request costs one hash instead of HMAC + JSON parsing.
+ * Exposes {@code cache.gets{cache=jwt.verified}} hit/miss counters and a
+ * {@code jwt.verify{outcome=valid|invalid}} timer for the uncached path.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry registry,
+            @Value("${app.jwt.verified-cache-size:10000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long ttlMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified");
+        this.validTimer = verifyTimer(registry, "valid");
+        this.invalidTimer = verifyTimer(registry, "invalid");
+    }
+
+    /** Returns the verified claims, or null when the token is invalid or expired. */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        VerifiedToken verified = null;
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            String id = claims.getId();
+            verified = new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                    id == null ? null : UUID.fromString(id), claims.getExpiration().getTime());
+            cache.put(digest, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        } finally {
+            (verified != null ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Signature verification and claim parsing of uncached tokens")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.dto.AttendanceSummaryDTO;
+import com.example.demo.dto.BulkAttendanceRequest;
+import com.example.demo.dto.DepartmentAttendanceDTO;
+import com.example.demo.entity.Attendance;
+import com.example.demo.index.AttendanceBitmapIndex;
+import com.example.demo.repository.AttendanceRepository;
+import com.example.demo.repository.EmployeeRepository;
+
+@Service
+public class AttendanceService {
+
+    private final AttendanceRepository repository;
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceBitmapIndex bitmapIndex;
+    private final long maxRangeDays;
+
+    public AttendanceService(AttendanceRepository repository, EmployeeRepository employeeRepository,
+            AttendanceBitmapIndex bitmapIndex, @Value("${app.attendance.max-range-days:1096}") long maxRangeDays) {
+        this.repository = repository;
+        this.employeeRepository = employeeRepository;
+        this.bitmapIndex = bitmapIndex;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // ✅ MARK ONE (insert or overwrite the day's status)
+    @Transactional
+    public AttendanceDTO mark(AttendanceDTO request) {
+        if (request.getEmployeeId() == null || request.getDate() == null) {
+            throw new IllegalArgumentException("employeeId and date are required");
+        }
+        if (!employeeRepository.existsById(request.getEmployeeId())) {
+            throw new IllegalArgumentException("Employee not found: " + request.getEmployeeId());
+        }
+        String status = normalizeStatus(request.getStatus());
+        repository.upsert(request.getEmployeeId(), request.getDate(), status);
+        afterCommit(() -> bitmapIndex.mark(request.getEmployeeId(), request.getDate(), status));
+        return new AttendanceDTO(request.getEmployeeId(), request.getDate(), status);
+    }
+
+    // ✅ MARK DEPARTMENT: a single INSERT ... SELECT for every employee in it.
+    // The bitmaps get the members by the same department = :department predicate, so they follow
+    // the column's collation (case-insensitive on MySQL) exactly as the insert does
+    @Transactional
+    public int markDepartment(BulkAttendanceRequest request) {
+        if (request.getDepartment() == null || request.getDepartment().isBlank() || request.getDate() == null) {
+            throw new IllegalArgumentException("department and date are required");
+        }
+        String status = normalizeStatus(request.getStatus());
+        List<Long> members = employeeRepository.findIdsByDepartment(request.getDepartment());
+        int rows = repository.upsertDepartment(request.getDepartment(), request.getDate(), status);
+        afterCommit(() -> bitmapIndex.markAll(members, request.getDate(), status));
+        return rows;
+    }
+
+    public List<AttendanceDTO> getRecords(Long employeeId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return repository.findRecords(employeeId, from, to);
+    }
+
+    public List<AttendanceSummaryDTO> summarizeByEmployee(YearMonth month, String department) {
+        return repository.summarizeByEmployee(month.atDay(1), month.atEndOfMonth(),
+                department == null || department.isBlank() ? null : department);
+    }
+
+    public List<DepartmentAttendanceDTO> summarizeByDepartment(YearMonth month) {
+        return repository.summarizeByDepartment(month.atDay(1), month.atEndOfMonth());
+    }
+
+    // Bitmap-backed: no attendance rows are read
+    public AttendanceBitmapIndex.RangeStats getEmployeeStats(Long employeeId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return bitmapIndex.employeeStats(employeeId, from, to);
+    }
+
+    public AttendanceBitmapIndex.DepartmentStats getDepartmentStats(String department, LocalDate from,
+            LocalDate to) {
+        checkRange(from, to);
+        return bitmapIndex.departmentStats(department, from, to);
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        // The stats walk each year of the range for every member while holding the index read lock
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Range is limited to " + maxRangeDays + " days");
+        }
+        if (!bitmapIndex.isReady()) {
+            throw new IllegalStateException("Attendance index is still loading");
+        }
+    }
+
+    // Readers of the bitmaps only see committed marks
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalizeStatus(String status) {
+        if (status == null) {
+            return Attendance.PRESENT;
+        }
+        String normalized = status.trim().toUpperCase(Locale.ROOT);
+        if (!normalized.equals(Attendance.PRESENT) && !normalized.equals(Attendance.ABSENT)) {
+            throw new IllegalArgumentException("status must be PRESENT or ABSENT");
+        }
+        return normalized;
+    }
+}
@@ -3,33 +3,56 @@ package com.example.demo.service;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.security.JwtUtil;
+import com.example.demo.security.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokens;
+    private final PasswordHasher hasher;
+    private final AsyncTaskExecutor workers;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil) {
+    public AuthService(UserRepository userRepository, RefreshTokenService refreshTokens, PasswordHasher hasher,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor workers) {
         this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
+        this.refreshTokens = refreshTokens;
+        this.hasher = hasher;
+        this.workers = workers;
     }
 
-    public java.util.Map<String, String> login(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElse(null);
-
-        if (user == null || !user.getPassword().equals(request.getPassword())) {
-            return null;
+    // Completes with null for bad credentials; throws RejectedExecutionException when the hasher is saturated.
+    // Read-only: the user lookup may go to a replica, the writes after the check run on their own
+    @Transactional(readOnly = true)
+    public CompletableFuture<Map<String, String>> login(LoginRequest request) {
+        if (request.getUsername() == null || request.getPassword() == null) {
+            return CompletableFuture.completedFuture(null);
         }
-
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
-
-        return java.util.Map.of(
-                "token", token,
-                "role", user.getRole());
+        User user = userRepository.findByUsername(request.getUsername()).orElse(null);
+        String stored = user == null ? null : user.getPassword();
+
+        // The database writes after the check run on the task executor, keeping the hasher pool on CPU work
+        return hasher.verify(request.getPassword(), stored).thenApplyAsync(result -> {
+            if (!result.matched()) {
+                return null;
+            }
+            if (result.upgradedHash() != null
+                    && userRepository.upgradePassword(user.getUsername(), stored, result.upgradedHash()) == 1) {
+                log.info("Upgraded password hash for user {}", user.getId());
+            }
+            return refreshTokens.issue(user);
+        }, workers);
     }
 
 }
@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entity.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Delivers queued mail off the request path. Each poll claims a batch of due rows,
+ * splits it across at most {@code concurrency} workers and sends every chunk over a
+ * single SMTP connection. Failures are retried with exponential backoff until
+ * {@code max-attempts}, after which the row is parked as DEAD for inspection. A sent
+ * row keeps its envelope but not its body, which may hold a live reset link.
+ * Chunks run on the application task executor, which uses virtual threads when
+ * {@code spring.threads.virtual.enabled} is on; the chunk count, not the executor,
+ * bounds concurrent SMTP sessions.
+ * Each SMTP session is timed as {@code mail.send{outcome}}, and every message is
+ * counted in {@code mail.messages{outcome=sent|failed|dead}}.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry registry;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dead;
+    private final AsyncTaskExecutor workers;
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final String from;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository, JavaMailSender mailSender, MeterRegistry registry,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor workers,
+            @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+            @Value("${app.mail.outbox.concurrency:4}") int concurrency,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.base-backoff-ms:30000}") long baseBackoffMs,
+            @Value("${app.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+            @Value("${app.mail.from:system@employeems.com}") String from) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.registry = registry;
+        this.sent = messages(registry, "sent");
+        this.failed = messages(registry, "failed");
+        this.dead = messages(registry, "dead");
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.from = from;
+        this.workers = workers;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.releaseStale(now.minusMinutes(5));
+
+        List<EmailOutbox> claimed = new ArrayList<>();
+        for (EmailOutbox row : repository.findDue(now, PageRequest.of(0, batchSize))) {
+            if (repository.claim(row.getId(), now) == 1) {
+                claimed.add(row);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        int chunkSize = (claimed.size() + concurrency - 1) / concurrency;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i += chunkSize) {
+            List<EmailOutbox> chunk = claimed.subList(i, Math.min(i + chunkSize, claimed.size()));
+            futures.add(workers.submit(() -> sendChunk(chunk)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Mail outbox worker failed", e.getCause());
+            }
+        }
+        repository.saveAll(claimed);
+    }
+
+    // One connection per chunk: JavaMailSender sends a message array over a single transport
+    private void sendChunk(List<EmailOutbox> chunk) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            messages[i] = toMessage(chunk.get(i));
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                // connection-level failure: nothing was sent
+                outcome = "error";
+                markAllFailed(chunk, e);
+                return;
+            }
+            outcome = failures.size() < messages.length ? "partial" : "error";
+        } catch (MailException e) {
+            outcome = "error";
+            markAllFailed(chunk, e);
+            return;
+        } catch (RuntimeException e) {
+            // Anything else still counts as an attempt, or the rows would be claimed again every poll
+            outcome = "error";
+            markAllFailed(chunk, e);
+            return;
+        } finally {
+            Timer.builder("mail.send")
+                    .description("One SMTP session delivering a chunk of outbox messages")
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            // failures are keyed by the SimpleMailMessage we handed in
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                markSent(chunk.get(i), now);
+            } else {
+                markFailed(chunk.get(i), failure);
+            }
+        }
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(row.getRecipient());
+        message.setSubject(row.getSubject());
+        message.setText(row.getBody());
+        return message;
+    }
+
+    private void markAllFailed(List<EmailOutbox> chunk, Exception e) {
+        for (EmailOutbox row : chunk) {
+            markFailed(row, e);
+        }
+    }
+
+    private void markSent(EmailOutbox row, LocalDateTime now) {
+        row.setStatus(EmailOutbox.Status.SENT);
+        row.setSentAt(now);
+        // Reset mails carry a live link; the row only keeps the envelope once delivered
+        row.setBody(null);
+        row.setLockedAt(null);
+        row.setLastError(null);
+        sent.increment();
+    }
+
+    private void markFailed(EmailOutbox row, Exception e) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLockedAt(null);
+        String message = String.valueOf(e.getMessage());
+        row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (attempts >= maxAttempts) {
+            row.setStatus(EmailOutbox.Status.DEAD);
+            dead.increment();
+            log.warn("Mail {} to {} dead-lettered after {} attempts: {}", row.getId(), row.getRecipient(),
+                    attempts, message);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts - 1, 20));
+        row.setStatus(EmailOutbox.Status.PENDING);
+        failed.increment();
+        row.setNextAttemptAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+    }
+
+    private static Counter messages(MeterRegistry registry, String outcome) {
+        return Counter.builder("mail.messages")
+                .description("Outbox messages by delivery outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -1,25 +1,26 @@
 package com.example.demo.service;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.example.demo.entity.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
 
-    public void sendEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-
-        // You might want to make this configurable or dynamic
-        message.setFrom("system@employeems.com");
+    public EmailService(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
 
-        mailSender.send(message);
+    // Queues the mail in the caller's transaction; EmailOutboxDispatcher does the SMTP work
+    @Transactional
+    public EmailOutbox queueEmail(String to, String subject, String body) {
+        EmailOutbox message = new EmailOutbox();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body);
+        return outboxRepository.save(message);
     }
 }
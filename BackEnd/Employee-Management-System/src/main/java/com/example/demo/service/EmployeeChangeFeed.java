@@ -0,0 +1,426 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.dto.EmployeeDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Committed employee changes as Server-Sent Events, so open lists can patch their rows
+ * instead of refetching. Events are {@code created} and {@code updated} with the
+ * summary row, {@code deleted} with the id, and {@code reset} when the client has to
+ * reload. A reset is sent after an import, after a transaction touching too many rows,
+ * or when a client resumes from an event the buffer no longer holds.
+ *
+ * <p>Changes are collected per transaction, one per employee, and appended after
+ * commit to a fixed ring buffer as JSON serialized once. Subscribers are only a
+ * position in that buffer. A flusher thread hands each subscriber everything past its
+ * position, keeping only the latest event per employee, to a small pool of sender
+ * threads, so no thread is held per client. A subscriber has at most one send in
+ * flight: a slow client is skipped until its previous send completes, catches up later
+ * (or gets a reset once the buffer has moved past it), and is dropped when a send has
+ * not completed within {@code send-timeout}. Event ids are {@code <epoch>-<seq>}, and a {@code Last-Event-ID} from an
+ * earlier run of this node gets a reset.
+ *
+ * <p>A stream is authorized by the access token that opened it: it ends when that token
+ * expires or is revoked, checked on every flush, and the client reconnects with a
+ * fresh token.
+ *
+ * <p>The buffer is per node: a client only sees changes committed on the node it is
+ * connected to.
+ */
+@Service
+public class EmployeeChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeFeed.class);
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RESET = "reset";
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Change(String type, Long id, EmployeeDTO employee) {
+    }
+
+    private record Event(long seq, String type, Long id, String json) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final long expiresAtMillis;
+        final BooleanSupplier revoked;
+        // Handed from the flusher to one sender at a time; lastSeq is only touched by the holder
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long sendingSince;
+        long lastSeq;
+
+        Subscriber(SseEmitter emitter, long lastSeq, long expiresAtMillis, BooleanSupplier revoked) {
+            this.emitter = emitter;
+            this.lastSeq = lastSeq;
+            this.expiresAtMillis = expiresAtMillis;
+            this.revoked = revoked;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Event[] ring;
+    private final int maxPerTransaction;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long heartbeatNanos;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final long sendTimeoutNanos;
+    private final ScheduledExecutorService flusher;
+    private final Executor senders;
+    private final ExecutorService senderPool;
+    private final Counter published;
+    private final Counter resets;
+    private final Counter skipped;
+    // Guarded by ring
+    private long head;
+    // Only touched by the flusher thread
+    private long lastSent = System.nanoTime();
+
+    @Autowired
+    public EmployeeChangeFeed(ObjectMapper objectMapper, MeterRegistry registry,
+            @Value("${app.employees.changes.buffer:1024}") int buffer,
+            @Value("${app.employees.changes.max-subscribers:1000}") int maxSubscribers,
+            @Value("${app.employees.changes.flush-ms:250}") long flushMillis,
+            @Value("${app.employees.changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${app.employees.changes.timeout:10m}") Duration timeout,
+            @Value("${app.employees.changes.senders:4}") int senders,
+            @Value("${app.employees.changes.send-timeout:30s}") Duration sendTimeout) {
+        this(objectMapper, registry, buffer, maxSubscribers, flushMillis, heartbeat, timeout, sendTimeout,
+                senderPool(senders, maxSubscribers));
+    }
+
+    // Tests pass a direct executor so flush() sends before it returns
+    EmployeeChangeFeed(ObjectMapper objectMapper, MeterRegistry registry, int buffer, int maxSubscribers,
+            long flushMillis, Duration heartbeat, Duration timeout, Duration sendTimeout, Executor senders) {
+        this.objectMapper = objectMapper;
+        this.ring = new Event[buffer];
+        // A transaction bigger than this is one reset rather than a burst that overruns the buffer
+        this.maxPerTransaction = Math.max(1, buffer / 4);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senders = senders;
+        this.senderPool = senders instanceof ExecutorService pool ? pool : null;
+
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("change-feed-");
+        factory.setDaemon(true);
+        this.flusher = new ScheduledThreadPoolExecutor(1, factory);
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+
+        this.published = Counter.builder("employees.changes.published").register(registry);
+        this.resets = Counter.builder("employees.changes.resets").register(registry);
+        this.skipped = Counter.builder("employees.changes.skipped").register(registry);
+        Gauge.builder("employees.changes.subscribers", subscribers, List::size).register(registry);
+    }
+
+    // One task per subscriber at most, so the queue never holds more than the subscriber limit
+    private static ExecutorService senderPool(int threads, int maxSubscribers) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("change-feed-send-");
+        factory.setDaemon(true);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, maxSubscribers)), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public void created(EmployeeDTO employee) {
+        record(new Change(CREATED, employee.getId(), employee));
+    }
+
+    public void updated(EmployeeDTO employee) {
+        record(new Change(UPDATED, employee.getId(), employee));
+    }
+
+    public void deleted(Long id) {
+        record(new Change(DELETED, id, null));
+    }
+
+    /** Tells every client to reload, for changes too broad to describe row by row. */
+    public void reset() {
+        record(new Change(RESET, null, null));
+    }
+
+    /**
+     * Starts a stream after {@code lastEventId}, or at the current position when it is
+     * null, for an access token expiring at {@code expiresAtMillis}. The stream ends
+     * then, or once {@code revoked} reports the token revoked. Returns null when the
+     * subscriber limit is reached.
+     */
+    public SseEmitter subscribe(String lastEventId, long expiresAtMillis, BooleanSupplier revoked) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        long lifetime = Math.min(timeoutMillis, expiresAtMillis - System.currentTimeMillis());
+        return subscribe(lastEventId, new SseEmitter(Math.max(1, lifetime)), expiresAtMillis, revoked);
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        return subscribe(lastEventId, emitter, Long.MAX_VALUE, () -> false);
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter, long expiresAtMillis, BooleanSupplier revoked) {
+        long current;
+        synchronized (ring) {
+            current = head;
+        }
+        long resumeFrom = resumePosition(lastEventId, current);
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom < 0 ? current : resumeFrom, expiresAtMillis,
+                revoked);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            // Sent now so the response is committed and the client knows it is connected
+            emitter.send(SseEmitter.event().reconnectTime(3000).comment("connected"));
+            if (resumeFrom < 0) {
+                resets.increment();
+                emitter.send(SseEmitter.event().id(id(current)).name(RESET).data("{}"));
+            }
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        if (senderPool != null) {
+            senderPool.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Position to resume after, or -1 when the client missed events and must reload
+    private long resumePosition(String lastEventId, long current) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return current;
+        }
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        long seq;
+        try {
+            seq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return seq <= current && seq >= current - ring.length ? seq : -1;
+    }
+
+    private void record(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(change));
+            return;
+        }
+        // Coalesced per employee until the transaction commits; a rollback publishes nothing
+        @SuppressWarnings("unchecked")
+        Map<Object, Change> pending = (Map<Object, Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Object, Change> changes = new LinkedHashMap<>();
+            pending = changes;
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(changes.size() > maxPerTransaction
+                            ? List.of(new Change(RESET, null, null))
+                            : List.copyOf(changes.values()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EmployeeChangeFeed.this);
+                }
+            });
+        }
+        Object key = change.id() == null ? RESET : change.id();
+        Change previous = pending.remove(key);
+        // Created then updated in one transaction is still a creation
+        if (previous != null && CREATED.equals(previous.type()) && UPDATED.equals(change.type())) {
+            change = new Change(CREATED, change.id(), change.employee());
+        }
+        pending.put(key, change);
+    }
+
+    private void append(List<Change> changes) {
+        List<Event> events = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            events.add(new Event(0, change.type(), change.id(), objectMapper.writeValueAsString(change)));
+        }
+        synchronized (ring) {
+            for (Event event : events) {
+                head++;
+                ring[(int) (head % ring.length)] = new Event(head, event.type(), event.id(), event.json());
+            }
+        }
+        published.increment(events.size());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Change feed flush failed", e);
+        }
+    }
+
+    // Runs on the flusher thread only; the writing happens on the senders
+    void flush() {
+        long current;
+        long oldest;
+        synchronized (ring) {
+            current = head;
+        }
+        oldest = current - ring.length + 1;
+        boolean heartbeat = System.nanoTime() - lastSent >= heartbeatNanos;
+        boolean sent = false;
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.sending.compareAndSet(false, true)) {
+                // Still writing an earlier batch: skip it this round, give up on it once stalled
+                skipped.increment();
+                if (System.nanoTime() - subscriber.sendingSince > sendTimeoutNanos) {
+                    drop(subscriber, new IOException("Client stopped reading the change stream"));
+                }
+                continue;
+            }
+            if (now >= subscriber.expiresAtMillis || subscriber.revoked.getAsBoolean()) {
+                // The token that opened the stream is no longer good; the client reconnects with a fresh one
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            boolean behind = subscriber.lastSeq < current;
+            if (!behind && !heartbeat) {
+                subscriber.sending.set(false);
+                continue;
+            }
+            subscriber.sendingSince = System.nanoTime();
+            try {
+                senders.execute(() -> deliver(subscriber, behind, current, oldest));
+                sent |= behind;
+            } catch (RejectedExecutionException e) {
+                subscriber.sending.set(false);
+            }
+        }
+        if (sent || heartbeat) {
+            lastSent = System.nanoTime();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, boolean behind, long current, long oldest) {
+        try {
+            if (behind) {
+                send(subscriber, current, oldest);
+            } else {
+                // Keeps proxies from closing an idle stream and finds clients that went away
+                subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.completeWithError(cause);
+        }
+    }
+
+    private void send(Subscriber subscriber, long current, long oldest) throws IOException {
+        if (subscriber.lastSeq + 1 < oldest) {
+            sendReset(subscriber, current);
+            return;
+        }
+        List<Event> events = new ArrayList<>((int) (current - subscriber.lastSeq));
+        synchronized (ring) {
+            for (long seq = subscriber.lastSeq + 1; seq <= current; seq++) {
+                events.add(ring[(int) (seq % ring.length)]);
+            }
+        }
+        // The buffer may have wrapped past this subscriber since the positions were read
+        if (events.get(0).seq() != subscriber.lastSeq + 1) {
+            sendReset(subscriber, current);
+            return;
+        }
+        // Latest event per employee only; a reset makes everything before it moot
+        Map<Long, Long> latest = new HashMap<>();
+        long lastReset = -1;
+        for (Event event : events) {
+            if (event.id() == null) {
+                lastReset = event.seq();
+            } else {
+                latest.put(event.id(), event.seq());
+            }
+        }
+        for (Event event : events) {
+            boolean superseded = event.seq() < lastReset
+                    || (event.id() != null && latest.get(event.id()) != event.seq());
+            if (!superseded) {
+                subscriber.emitter.send(SseEmitter.event().id(id(event.seq())).name(event.type()).data(event.json()));
+            }
+        }
+        subscriber.lastSeq = current;
+    }
+
+    private void sendReset(Subscriber subscriber, long current) throws IOException {
+        resets.increment();
+        subscriber.emitter.send(SseEmitter.event().id(id(current)).name(RESET).data("{}"));
+        subscriber.lastSeq = current;
+    }
+
+    private String id(long seq) {
+        return epoch + "-" + seq;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import com.example.demo.dto.EmployeeDTO;
+
+/**
+ * Opaque keyset position for the employee list: the sort it belongs to, the travel
+ * direction and the (sort value, id) of the boundary row, Base64url encoded.
+ */
+record EmployeeCursor(String field, boolean descending, boolean backward, long id, String value) {
+
+    private static final String VERSION = "v1";
+
+    static EmployeeCursor of(String field, boolean descending, boolean backward, EmployeeDTO row) {
+        String value = switch (field) {
+            case "name" -> row.getName();
+            case "department" -> row.getDepartment();
+            case "joinedDate" -> row.getJoinedDate() == null ? null : row.getJoinedDate().toString();
+            default -> null;
+        };
+        return new EmployeeCursor(field, descending, backward, row.getId(), value);
+    }
+
+    Object typedValue() {
+        if (value == null) {
+            return null;
+        }
+        return field.equals("joinedDate") ? LocalDate.parse(value) : value;
+    }
+
+    String encode() {
+        String raw = String.join("|", VERSION, field, descending ? "d" : "a", backward ? "p" : "n",
+                Long.toString(id), value == null ? "-" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static EmployeeCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 6);
+            if (parts.length != 6 || !parts[0].equals(VERSION)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String value = parts[5].equals("-") ? null : parts[5].substring(1);
+            return new EmployeeCursor(parts[1], parts[2].equals("d"), parts[3].equals("p"),
+                    Long.parseLong(parts[4]), value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.config.StreamingStatements;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Full-roster extracts as CSV or NDJSON. Rows are read through a forward-only
+ * cursor with a fixed fetch size and written to the response as they arrive, so
+ * no entities are materialised and heap use does not grow with the table. Photo
+ * bytes are only read from the photo store when the caller asks for them. CSV text
+ * cells that a spreadsheet would run as a formula get a leading {@code '}, which
+ * EmployeeImportService removes again.
+ */
+@Service
+public class EmployeeExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "department", "department",
+            "joinedDate", "joined_date");
+
+    // Same columns, in the same order, as the CSV accepted by EmployeeImportService
+    private static final String[] FIELDS = { "id", "name", "email", "department", "phone", "address",
+            "maritalStatus", "education", "companyRole", "salary", "username", "joinedDate", "photoRef" };
+    // A cell starting with one of these is a formula to Excel, LibreOffice and Sheets
+    static final String FORMULA_START = "=+-@\t\r";
+
+    private static final String SELECT = "SELECT id, name, email, department, phone, address, marital_status, "
+            + "education, company_role, salary, username, joined_date, photo_ref, photo_content_type FROM employee";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final PhotoStorageService photoStorage;
+    private final ObjectMapper objectMapper;
+
+    public EmployeeExportService(JdbcTemplate jdbcTemplate, PhotoStorageService photoStorage,
+            ObjectMapper objectMapper, @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Only the export statement streams; see StreamingStatements
+        this.fetchSize = fetchSize;
+        this.photoStorage = photoStorage;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Validated export request; build it before committing the response so bad input can still get a 400. */
+    public record ExportQuery(String format, String sql, List<Object> params, boolean includePhotos) {
+    }
+
+    public ExportQuery prepare(String format, String search, String sort, boolean includePhotos) {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        String column = "id";
+        String dir = "ASC";
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            column = SORT_COLUMNS.get(parts[0].trim());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort field: " + parts[0].trim());
+            }
+            if (parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc")) {
+                dir = "DESC";
+            }
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> params = new ArrayList<>();
+        if (search != null && !search.isBlank()) {
+            // Same predicate as the paged search in EmployeeRepositoryImpl
+            sql.append(" WHERE (name_lower LIKE ? OR department_lower LIKE ? OR LOWER(company_role) LIKE ?"
+                    + " OR CAST(id AS CHAR) LIKE ?)");
+            String kw = "%" + search.trim().toLowerCase() + "%";
+            params.add(kw);
+            params.add(kw);
+            params.add(kw);
+            params.add(kw);
+        }
+        sql.append(" ORDER BY ");
+        if (!column.equals("id")) {
+            sql.append(column).append(' ').append(dir).append(", ");
+        }
+        sql.append("id ").append(dir);
+        return new ExportQuery(format, sql.toString(), params, includePhotos);
+    }
+
+    public void export(ExportQuery query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        boolean csv = CSV.equals(query.format());
+        if (csv) {
+            writeCsvRow(writer, header(query.includePhotos()));
+        }
+
+        try {
+            jdbcTemplate.query(StreamingStatements.of(query.sql(), fetchSize, query.params().toArray()), rs -> {
+                try {
+                    Object[] row = readRow(rs, query.includePhotos());
+                    if (csv) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writeJsonRow(writer, row, query.includePhotos());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // client went away; the cursor is closed by JdbcTemplate
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static Object[] header(boolean includePhotos) {
+        Object[] header = new Object[FIELDS.length + (includePhotos ? 1 : 0)];
+        System.arraycopy(FIELDS, 0, header, 0, FIELDS.length);
+        if (includePhotos) {
+            header[FIELDS.length] = "photo";
+        }
+        return header;
+    }
+
+    private Object[] readRow(ResultSet rs, boolean includePhotos) throws SQLException, IOException {
+        Object[] row = new Object[FIELDS.length + (includePhotos ? 1 : 0)];
+        row[0] = rs.getLong("id");
+        row[1] = rs.getString("name");
+        row[2] = rs.getString("email");
+        row[3] = rs.getString("department");
+        row[4] = rs.getString("phone");
+        row[5] = rs.getString("address");
+        row[6] = rs.getString("marital_status");
+        row[7] = rs.getString("education");
+        row[8] = rs.getString("company_role");
+        row[9] = rs.getObject("salary", Double.class);
+        row[10] = rs.getString("username");
+        row[11] = rs.getObject("joined_date", LocalDate.class);
+        row[12] = rs.getString("photo_ref");
+        if (includePhotos) {
+            row[FIELDS.length] = photoDataUrl((String) row[12],
+                    rs.getString("photo_content_type"));
+        }
+        return row;
+    }
+
+    // The same data URL shape the add/update endpoints accept, so an export can be re-imported
+    private String photoDataUrl(String hash, String contentType) throws IOException {
+        if (hash == null || !photoStorage.exists(hash)) {
+            return null;
+        }
+        Path file = photoStorage.resolve(hash);
+        return "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(Files.readAllBytes(file));
+    }
+
+    private void writeJsonRow(Writer writer, Object[] row, boolean includePhotos) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (row[i] != null) {
+                json.put(FIELDS[i], row[i] instanceof LocalDate date ? date.toString() : row[i]);
+            }
+        }
+        if (includePhotos && row[FIELDS.length] != null) {
+            json.put("photo", row[FIELDS.length]);
+        }
+        writer.write(objectMapper.writeValueAsString(json));
+        writer.write('\n');
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (row[i] == null) {
+                continue;
+            }
+            String value = row[i].toString();
+            if (row[i] instanceof String && !value.isEmpty() && FORMULA_START.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ImportReport;
+import com.example.demo.entity.Employee;
+import com.example.demo.index.EmployeeSearchIndex;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.UserRepository;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk import of employees from CSV or NDJSON. The body is parsed one record at a
+ * time and written in chunks: each chunk prefetches the usernames and emails it
+ * could collide with in two IN queries, then inserts employees and their login
+ * accounts with JDBC batches inside a single transaction. A failing chunk is rolled
+ * back and reported row by row; earlier chunks stay committed, and are indexed even
+ * if the upload breaks off.
+ */
+@Service
+public class EmployeeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private static final String INSERT_EMPLOYEE = "INSERT INTO employee (name, email, department, phone, address, "
+            + "marital_status, education, company_role, salary, username, joined_date, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USER = "INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final UserRepository userRepository;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeStatsService statsService;
+    private final EmployeeChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxErrors;
+    // One BCrypt hash of the shared default password for every imported login; hashing per row
+    // would cost tens of milliseconds each
+    private final String defaultPasswordHash;
+
+    public EmployeeImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EmployeeRepository employeeRepository, UserRepository userRepository, EmployeeSearchIndex searchIndex,
+            EmployeeStatsService statsService, EmployeeChangeFeed changeFeed, ObjectMapper objectMapper,
+            PasswordEncoder passwordEncoder,
+            @Value("${app.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.employeeRepository = employeeRepository;
+        this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.statsService = statsService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.defaultPasswordHash = passwordEncoder.encode("welcome123");
+    }
+
+    private record Row(int line, Employee employee) {
+    }
+
+    // Header: name,email,department,phone,address,maritalStatus,education,companyRole,salary,username,joinedDate
+    public ImportReport importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(report);
+        try {
+            try {
+                List<String> header = csv.next();
+                if (header != null) {
+                    String[] columns = new String[header.size()];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+                    }
+                    List<String> record;
+                    while ((record = csv.next()) != null) {
+                        int line = csv.recordLine();
+                        try {
+                            batch.add(new Row(line, fromCsv(columns, record)));
+                        } catch (IllegalArgumentException e) {
+                            batch.reject(line, e.getMessage());
+                        }
+                    }
+                }
+            } catch (CsvReader.MalformedCsvException e) {
+                // The open quote swallowed the rest of the input, so this is the last record
+                batch.reject(e.line(), e.getMessage());
+            }
+            batch.flush();
+        } finally {
+            batch.reindex();
+        }
+        return report;
+    }
+
+    // One JSON object per line, same property names as the Employee payload of POST /api/employees
+    public ImportReport importNdjson(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        ImportReport report = new ImportReport();
+        Batch batch = new Batch(report);
+        try {
+            String text;
+            int line = 0;
+            while ((text = lines.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(new Row(line, objectMapper.readValue(text, Employee.class)));
+                } catch (JacksonException e) {
+                    batch.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            batch.flush();
+        } finally {
+            batch.reindex();
+        }
+        return report;
+    }
+
+    private static Employee fromCsv(String[] columns, List<String> record) {
+        Employee emp = new Employee();
+        for (int i = 0; i < columns.length && i < record.size(); i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            // Undo the quote EmployeeExportService puts before formula-like text
+            if (value.length() > 1 && value.charAt(0) == '\''
+                    && EmployeeExportService.FORMULA_START.indexOf(value.charAt(1)) >= 0) {
+                value = value.substring(1);
+            }
+            switch (columns[i]) {
+                case "name" -> emp.setName(value);
+                case "email" -> emp.setEmail(value);
+                case "department" -> emp.setDepartment(value);
+                case "phone" -> emp.setPhone(value);
+                case "address" -> emp.setAddress(value);
+                case "maritalstatus" -> emp.setMaritalStatus(value);
+                case "education" -> emp.setEducation(value);
+                case "companyrole" -> emp.setCompanyRole(value);
+                case "username" -> emp.setUsername(value);
+                case "salary" -> {
+                    try {
+                        emp.setSalary(Double.valueOf(value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid salary: " + value);
+                    }
+                }
+                case "joineddate" -> {
+                    try {
+                        emp.setJoinedDate(LocalDate.parse(value));
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Invalid joinedDate (expected yyyy-MM-dd): " + value);
+                    }
+                }
+                default -> {
+                    // unknown columns are ignored
+                }
+            }
+        }
+        return emp;
+    }
+
+    // Accumulates parsed rows and flushes them a chunk at a time
+    private final class Batch {
+
+        private final ImportReport report;
+        private final List<Row> rows = new ArrayList<>(chunkSize);
+        // usernames / emails taken earlier in this file
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+
+        Batch(ImportReport report) {
+            this.report = report;
+        }
+
+        void add(Row row) {
+            report.setTotal(report.getTotal() + 1);
+            rows.add(row);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int line, String message) {
+            report.setTotal(report.getTotal() + 1);
+            fail(line, message);
+        }
+
+        // Runs even when reading breaks off, so chunks already committed reach the index, stats and
+        // change feed; rows still pending from an aborted upload are not written
+        void reindex() {
+            if (report.getImported() > 0) {
+                searchIndex.rebuild();
+                statsService.reconcile();
+                changeFeed.reset();
+            }
+        }
+
+        private void fail(int line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new ImportReport.RowError(line, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            Set<String> usernames = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (Row row : rows) {
+                Employee emp = row.employee();
+                if (hasText(emp.getUsername())) {
+                    usernames.add(emp.getUsername());
+                    if (hasText(emp.getEmail())) {
+                        emails.add(emp.getEmail());
+                    }
+                }
+            }
+            Set<String> takenUsernames = new HashSet<>();
+            Set<String> takenEmails = Set.of();
+            if (!usernames.isEmpty()) {
+                takenUsernames.addAll(userRepository.findExistingUsernames(usernames));
+                takenUsernames.addAll(employeeRepository.findExistingUsernames(usernames));
+            }
+            if (!emails.isEmpty()) {
+                takenEmails = userRepository.findExistingEmails(emails);
+            }
+
+            List<Row> accepted = new ArrayList<>(rows.size());
+            List<Employee> accounts = new ArrayList<>();
+            Map<Integer, String> claimed = new HashMap<>();
+            for (Row row : rows) {
+                Employee emp = row.employee();
+                if (!hasText(emp.getName())) {
+                    fail(row.line(), "Name is required");
+                    continue;
+                }
+                String username = emp.getUsername();
+                if (hasText(username)) {
+                    if (takenUsernames.contains(username) || seenUsernames.contains(username)) {
+                        fail(row.line(), "Username already exists: " + username);
+                        continue;
+                    }
+                    String email = emp.getEmail();
+                    if (hasText(email) && (takenEmails.contains(email) || seenEmails.contains(email))) {
+                        fail(row.line(), "Email already exists: " + email);
+                        continue;
+                    }
+                    seenUsernames.add(username);
+                    if (hasText(email)) {
+                        seenEmails.add(email);
+                    }
+                    claimed.put(row.line(), username);
+                    accounts.add(emp);
+                }
+                accepted.add(row);
+            }
+            rows.clear();
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(accepted, accounts));
+                report.setImported(report.getImported() + accepted.size());
+                report.setUsersCreated(report.getUsersCreated() + accounts.size());
+            } catch (DataAccessException e) {
+                log.warn("Import chunk of {} rows rolled back: {}", accepted.size(), e.getMostSpecificCause().getMessage());
+                for (Row row : accepted) {
+                    fail(row.line(), "Chunk rolled back: " + e.getMostSpecificCause().getMessage());
+                    // nothing from this chunk was written, so later rows may reuse its names
+                    if (claimed.containsKey(row.line())) {
+                        seenUsernames.remove(row.employee().getUsername());
+                        seenEmails.remove(row.employee().getEmail());
+                    }
+                }
+            }
+        }
+
+        private void insert(List<Row> accepted, List<Employee> accounts) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            LocalDate today = LocalDate.now();
+            jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, accepted, chunkSize, (ps, row) -> {
+                Employee emp = row.employee();
+                ps.setString(1, emp.getName());
+                ps.setString(2, emp.getEmail());
+                ps.setString(3, emp.getDepartment());
+                ps.setString(4, emp.getPhone());
+                ps.setString(5, emp.getAddress());
+                ps.setString(6, emp.getMaritalStatus());
+                ps.setString(7, emp.getEducation());
+                ps.setString(8, emp.getCompanyRole());
+                ps.setObject(9, emp.getSalary(), java.sql.Types.DOUBLE);
+                ps.setString(10, emp.getUsername());
+                ps.setObject(11, emp.getJoinedDate() != null ? emp.getJoinedDate() : today, java.sql.Types.DATE);
+                ps.setTimestamp(12, now);
+            });
+            if (!accounts.isEmpty()) {
+                // Same defaults as EmployeeService.add
+                jdbcTemplate.batchUpdate(INSERT_USER, accounts, chunkSize, (ps, emp) -> {
+                    ps.setString(1, emp.getUsername());
+                    ps.setString(2, hasText(emp.getEmail()) ? emp.getEmail() : null);
+                    ps.setString(3, defaultPasswordHash);
+                    ps.setString(4, "USER");
+                });
+            }
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
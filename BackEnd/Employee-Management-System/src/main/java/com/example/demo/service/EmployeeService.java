@@ -1,35 +1,201 @@
 package com.example.demo.service;
 
+import com.example.demo.config.CacheConfig;
+import com.example.demo.dto.BulkEmployeeRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.dto.EmployeeStatsDTO;
 import com.example.demo.entity.Employee;
+import com.example.demo.index.EmployeeSearchIndex;
 import com.example.demo.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class EmployeeService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
+
+    // Fields PATCH may touch; identity, login and photo have their own paths
+    private static final Set<String> PATCHABLE = Set.of("name", "email", "department", "phone", "address",
+            "maritalStatus", "education", "companyRole", "salary", "joinedDate");
+    // Keeps IN lists well under MySQL's placeholder limit; larger sets go by department
+    static final int MAX_BULK_IDS = 10_000;
+    private static final int REINDEX_BATCH = 1_000;
+
     private final EmployeeRepository repository;
     private final com.example.demo.repository.UserRepository userRepository;
-    // We need to inject PasswordEncoder if we want to hash passwords,
-    // but current system seems to use plain text or we need to check SecurityConfig
+    private final PhotoStorageService photoStorage;
+    private final ThumbnailService thumbnails;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeStatsService statsService;
+    private final com.example.demo.repository.AttendanceRepository attendanceRepository;
+    private final com.example.demo.index.AttendanceBitmapIndex attendanceIndex;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokens;
+    private final EmployeeChangeFeed changeFeed;
+    private final jakarta.persistence.EntityManager entityManager;
 
-    public EmployeeService(EmployeeRepository repository, com.example.demo.repository.UserRepository userRepository) {
+    public EmployeeService(EmployeeRepository repository, com.example.demo.repository.UserRepository userRepository,
+            PhotoStorageService photoStorage, ThumbnailService thumbnails, EmployeeSearchIndex searchIndex,
+            EmployeeStatsService statsService,
+            com.example.demo.repository.AttendanceRepository attendanceRepository,
+            com.example.demo.index.AttendanceBitmapIndex attendanceIndex, CacheManager cacheManager,
+            ObjectMapper objectMapper, PasswordEncoder passwordEncoder, RefreshTokenService refreshTokens,
+            EmployeeChangeFeed changeFeed, jakarta.persistence.EntityManager entityManager) {
         this.repository = repository;
         this.userRepository = userRepository;
+        this.photoStorage = photoStorage;
+        this.thumbnails = thumbnails;
+        this.searchIndex = searchIndex;
+        this.statsService = statsService;
+        this.attendanceRepository = attendanceRepository;
+        this.attendanceIndex = attendanceIndex;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokens = refreshTokens;
+        this.changeFeed = changeFeed;
+        this.entityManager = entityManager;
     }
 
-    public org.springframework.data.domain.Page<Employee> getAll(String search,
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public org.springframework.data.domain.Page<EmployeeDTO> getAll(String search, Set<String> fields,
             org.springframework.data.domain.Pageable pageable) {
-        if (search != null && !search.trim().isEmpty()) {
-            return repository.searchEmployees(search.trim(), pageable);
+        if (fields != null) {
+            EmployeeDTO.checkFields(fields);
+        }
+        org.springframework.data.domain.Page<EmployeeDTO> page;
+        if (search != null && !search.trim().isEmpty() && searchIndex.isReady()) {
+            // Ranked by relevance unless the caller asked for a sort the index understands
+            org.springframework.data.domain.Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+            List<Long> ids = order != null && searchIndex.supportsSort(order.getProperty())
+                    ? searchIndex.scroll(search, order.getProperty(), order.isDescending(), null, null, Integer.MAX_VALUE)
+                    : searchIndex.search(search);
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            page = new org.springframework.data.domain.PageImpl<>(hydrate(ids.subList(from, to)), pageable,
+                    ids.size());
+        } else if (search != null && !search.trim().isEmpty()) {
+            page = repository.searchSummaries(search.trim(), pageable);
+        } else {
+            page = repository.findAllSummaries(pageable);
+        }
+        if (fields == null || fields.isEmpty()) {
+            return page;
+        }
+        return page.map(dto -> dto.retain(fields));
+    }
+
+    // Keyset pagination: cost is independent of depth, and the total is only computed on request
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public CursorPage<EmployeeDTO> scroll(String search, String sort, String cursor, int size, String count) {
+        String field = "id";
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            field = parts[0].trim();
+            descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        }
+
+        EmployeeCursor position = null;
+        if (cursor != null && !cursor.isBlank()) {
+            position = EmployeeCursor.decode(cursor);
+            field = position.field();
+            descending = position.descending();
+        }
+        boolean backward = position != null && position.backward();
+
+        boolean useIndex = search != null && !search.isBlank() && searchIndex.isReady();
+        Object afterValue = position == null ? null : position.typedValue();
+        Long afterId = position == null ? null : position.id();
+        List<EmployeeDTO> rows = useIndex
+                ? hydrate(searchIndex.scroll(search, field, descending != backward, afterValue, afterId, size + 1))
+                : new ArrayList<>(repository.scrollSummaries(search, field, descending != backward, afterValue,
+                        afterId, size + 1));
+        boolean more = rows.size() > size;
+        if (more) {
+            rows.remove(rows.size() - 1);
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
+
+        String next = null;
+        String prev = null;
+        if (!rows.isEmpty()) {
+            if (backward || more) {
+                next = EmployeeCursor.of(field, descending, false, rows.get(rows.size() - 1)).encode();
+            }
+            if (backward ? more : position != null) {
+                prev = EmployeeCursor.of(field, descending, true, rows.get(0)).encode();
+            }
+        }
+
+        Long total = null;
+        Boolean approximate = null;
+        if ("exact".equalsIgnoreCase(count)) {
+            total = useIndex ? searchIndex.count(search) : repository.countSummaries(search);
+        } else if ("approx".equalsIgnoreCase(count)) {
+            total = (search == null || search.isBlank()) ? repository.estimateCount() : null;
+            approximate = total != null;
+            if (total == null) {
+                total = useIndex ? searchIndex.count(search) : repository.countSummaries(search);
+            }
+        }
+        return new CursorPage<>(rows, size, next, prev, total, approximate);
+    }
+
+    // Loads summary rows for ids resolved in memory, keeping the caller's order
+    private List<EmployeeDTO> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, EmployeeDTO> byId = new HashMap<>();
+        for (EmployeeDTO dto : repository.findSummariesByIdIn(ids)) {
+            byId.put(dto.getId(), dto);
+        }
+        List<EmployeeDTO> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            EmployeeDTO dto = byId.get(id);
+            if (dto != null) {
+                rows.add(dto);
+            }
         }
-        return repository.findAll(pageable);
+        return rows;
     }
 
+    @org.springframework.transaction.annotation.Transactional
     public Employee add(Employee emp) {
+        applyPhoto(emp, emp.getPhoto());
         Employee savedEmp = repository.save(emp);
+        afterCommit(() -> {
+            searchIndex.put(savedEmp);
+            statsService.onAdded(savedEmp.getDepartment(), savedEmp.getJoinedDate());
+        });
+        changeFeed.created(EmployeeDTO.of(savedEmp));
 
         // Auto-create User account if username is provided
         if (emp.getUsername() != null && !emp.getUsername().isEmpty()) {
@@ -41,39 +207,245 @@ public class EmployeeService {
                 com.example.demo.entity.User newUser = new com.example.demo.entity.User();
                 newUser.setUsername(emp.getUsername());
                 newUser.setEmail(emp.getEmail()); // SYNC EMAIL
-                newUser.setPassword("welcome123"); // Default password
+                newUser.setPassword(passwordEncoder.encode("welcome123")); // Default password
                 newUser.setRole("USER");
                 userRepository.save(newUser);
             } else {
-                System.out.println("Skipping User creation: Username or Email already exists for " + emp.getName());
+                log.info("Skipping user creation for employee {}: username or email already exists", savedEmp.getId());
             }
         }
 
         return savedEmp;
     }
 
+    @org.springframework.transaction.annotation.Transactional
     public void delete(Long id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(existing -> {
+            attendanceRepository.deleteByEmployee(id);
+            repository.delete(existing);
+            evict(existing);
+            afterCommit(() -> {
+                searchIndex.remove(id);
+                attendanceIndex.removeEmployee(id);
+                statsService.onRemoved(existing.getDepartment(), existing.getJoinedDate());
+            });
+            changeFeed.deleted(id);
+            if (existing.getUsername() != null) {
+                userRepository.findByUsername(existing.getUsername())
+                        .filter(user -> "USER".equals(user.getRole()))
+                        .ifPresent(userRepository::delete);
+                refreshTokens.revokeUser(existing.getUsername());
+            }
+        });
+    }
+
+    // ✅ BULK UPDATE: one UPDATE for the whole selection, then caches and indexes catch up
+    @org.springframework.transaction.annotation.Transactional
+    public int bulkUpdate(BulkEmployeeRequest request) {
+        List<Long> ids = bulkSelection(request);
+        if (request.getNewDepartment() == null && request.getCompanyRole() == null && request.getSalary() == null
+                && request.getSalaryPercent() == null) {
+            throw new IllegalArgumentException(
+                    "Nothing to change: give newDepartment, companyRole, salary or salaryPercent");
+        }
+        if (request.getSalary() != null && request.getSalaryPercent() != null) {
+            throw new IllegalArgumentException("salary and salaryPercent cannot be combined");
+        }
+        if (request.getNewDepartment() != null && request.getNewDepartment().isBlank()) {
+            throw new IllegalArgumentException("newDepartment must not be blank");
+        }
+        if (ids != null && ids.isEmpty()) {
+            return 0;
+        }
+        boolean indexed = request.getNewDepartment() != null || request.getCompanyRole() != null;
+        List<Long> touched = ids != null ? ids : repository.findIdsByDepartment(request.getDepartment());
+
+        int rows = repository.bulkUpdate(ids, request.getDepartment(), request);
+        clearEmployeeCaches();
+        // Every row's version moved, salary-only included, so open lists get the new rows
+        for (int from = 0; from < touched.size(); from += REINDEX_BATCH) {
+            List<Long> batch = touched.subList(from, Math.min(from + REINDEX_BATCH, touched.size()));
+            List<EmployeeDTO> summaries = repository.findSummariesByIdIn(batch);
+            if (indexed) {
+                afterCommit(() -> searchIndex.putAll(summaries));
+            }
+            summaries.forEach(changeFeed::updated);
+        }
+        if (request.getNewDepartment() != null) {
+            afterCommit(statsService::reconcile);
+        }
+        log.info("Bulk update of {} employees", rows);
+        return rows;
+    }
+
+    // ✅ BULK DELETE: attendance, USER logins and employees, one statement each; sessions are revoked
+    @org.springframework.transaction.annotation.Transactional
+    public int bulkDelete(BulkEmployeeRequest request) {
+        List<Long> ids = bulkSelection(request);
+        if (ids != null && ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> removed = ids != null ? ids : repository.findIdsByDepartment(request.getDepartment());
+        List<String> usernames = ids != null ? repository.findUsernamesByIdIn(ids)
+                : repository.findUsernamesByDepartment(request.getDepartment());
+
+        int rows = repository.bulkDelete(ids, request.getDepartment());
+        refreshTokens.revokeUsers(usernames);
+        afterCommit(() -> {
+            searchIndex.removeAll(removed);
+            removed.forEach(attendanceIndex::removeEmployee);
+        });
+        removed.forEach(changeFeed::deleted);
+        clearEmployeeCaches();
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        afterCommit(statsService::reconcile);
+        log.info("Bulk delete of {} employees", rows);
+        return rows;
+    }
+
+    // Either explicit ids (de-duplicated, null if absent) or a department
+    private static List<Long> bulkSelection(BulkEmployeeRequest request) {
+        boolean byDepartment = request.getDepartment() != null && !request.getDepartment().isBlank();
+        if ((request.getIds() != null) == byDepartment) {
+            throw new IllegalArgumentException("Select employees with either ids or department");
+        }
+        if (byDepartment) {
+            return null;
+        }
+        if (request.getIds().size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_BULK_IDS + " ids per request; select by department instead");
+        }
+        return List.copyOf(new LinkedHashSet<>(request.getIds()));
+    }
+
+    public EmployeeStatsDTO getStats(int windowDays) {
+        return statsService.snapshot(windowDays);
     }
 
     // ✅ GET BY ID
+    // Cached instances are shared: callers that modify an employee load it with load(id).
+    // Detached, so a later load(id) in the same persistence context gets its own instance
+    @Cacheable(value = CacheConfig.EMPLOYEES, key = "#id")
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Employee getById(Long id) {
+        return detached(load(id));
+    }
+
+    private Employee load(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
     }
 
-    // ✅ UPDATE
-    public Employee updateEmployee(Long id, Employee emp) {
-        Employee existing = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
+    // ✅ UPDATE: expectedVersion comes from If-Match (null for "*"); @Version catches races after the check.
+    // The login's email is synced in the same transaction, so both rows commit or neither does
+    @org.springframework.transaction.annotation.Transactional
+    public Employee updateEmployee(Long id, Employee emp, Long expectedVersion) {
+        Employee existing = load(id);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        String oldDepartment = existing.getDepartment();
+        String oldEmail = existing.getEmail();
 
         existing.setName(emp.getName());
         existing.setEmail(emp.getEmail());
         existing.setDepartment(emp.getDepartment());
+        applyPhoto(existing, emp.getPhoto());
+
+        // Flush now so the response carries the bumped version
+        Employee saved = repository.saveAndFlush(existing);
+        syncLoginEmail(saved, oldEmail);
+        evict(saved);
+        afterCommit(() -> {
+            searchIndex.put(saved);
+            statsService.onChanged(oldDepartment, saved.getJoinedDate(), saved.getDepartment(), saved.getJoinedDate());
+        });
+        changeFeed.updated(EmployeeDTO.of(saved));
+        return saved;
+    }
+
+    // ✅ PATCH: only the fields in the body change, and @DynamicUpdate writes only those columns
+    @org.springframework.transaction.annotation.Transactional
+    public Employee patchEmployee(Long id, Map<String, Object> changes, Long expectedVersion) {
+        for (String field : changes.keySet()) {
+            if (!PATCHABLE.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+        }
+        Employee existing = load(id);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+        String oldDepartment = existing.getDepartment();
+        java.time.LocalDate oldJoinedDate = existing.getJoinedDate();
+        String oldEmail = existing.getEmail();
+        try {
+            objectMapper.updateValue(existing, changes);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getOriginalMessage());
+        }
+
+        // Flush now so the response carries the bumped version
+        Employee saved = repository.saveAndFlush(existing);
+        syncLoginEmail(saved, oldEmail);
+        evict(saved);
+        afterCommit(() -> {
+            searchIndex.put(saved);
+            statsService.onChanged(oldDepartment, oldJoinedDate, saved.getDepartment(), saved.getJoinedDate());
+        });
+        changeFeed.updated(EmployeeDTO.of(saved));
+        return saved;
+    }
 
-        return repository.save(existing);
+    // The login created by add() carries the employee's email; keep it in step
+    private void syncLoginEmail(Employee employee, String oldEmail) {
+        if (employee.getUsername() == null || Objects.equals(oldEmail, employee.getEmail())) {
+            return;
+        }
+        // A clash on the unique users email fails here and rolls back the employee row as well
+        userRepository.updateEmail(employee.getUsername(), employee.getEmail());
+    }
+
+    // ✅ PHOTO
+    public Employee updatePhoto(Long id, PhotoStorageService.StoredPhoto photo) {
+        Employee existing = load(id);
+        existing.setPhotoRef(photo.hash());
+        existing.setPhotoContentType(photo.contentType());
+        Employee saved = repository.save(existing);
+        evict(saved);
+        thumbnails.schedule(photo.hash());
+        changeFeed.updated(EmployeeDTO.of(saved));
+        return saved;
+    }
+
+    public Employee removePhoto(Long id) {
+        Employee existing = load(id);
+        existing.setPhotoRef(null);
+        existing.setPhotoContentType(null);
+        Employee saved = repository.save(existing);
+        evict(saved);
+        changeFeed.updated(EmployeeDTO.of(saved));
+        return saved;
     }
 
+    // Moves an inline Base64 photo from the request body into the blob store
+    private void applyPhoto(Employee target, String dataUrl) {
+        if (dataUrl == null || dataUrl.isEmpty()) {
+            return;
+        }
+        try {
+            PhotoStorageService.StoredPhoto stored = photoStorage.storeDataUrl(dataUrl);
+            target.setPhotoRef(stored.hash());
+            target.setPhotoContentType(stored.contentType());
+            target.setPhoto(null);
+            thumbnails.schedule(stored.hash());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store employee photo", e);
+        }
+    }
+
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<Employee> searchByIdNameOrDepartment(String keyword) {
 
         // 1️⃣ If keyword is numeric → search by ID
@@ -94,9 +466,43 @@ public class EmployeeService {
         return repository.findByDepartmentContainingIgnoreCase(keyword);
     }
 
+    @Cacheable(value = CacheConfig.EMPLOYEES_BY_USERNAME, key = "#username")
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public Employee getByUsername(String username) {
         return repository.findByUsername(username)
+                .map(this::detached)
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
     }
 
+    private Employee detached(Employee employee) {
+        entityManager.detach(employee);
+        return employee;
+    }
+
+    private void clearEmployeeCaches() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+        cacheManager.getCache(CacheConfig.EMPLOYEES_BY_USERNAME).clear();
+    }
+
+    // The search index and stats are shared with other requests, so they only see committed rows
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void evict(Employee employee) {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).evict(employee.getId());
+        if (employee.getUsername() != null) {
+            cacheManager.getCache(CacheConfig.EMPLOYEES_BY_USERNAME).evict(employee.getUsername());
+        }
+    }
+
 }
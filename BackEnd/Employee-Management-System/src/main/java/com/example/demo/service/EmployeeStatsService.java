@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.EmployeeStatsDTO;
+import com.example.demo.repository.EmployeeRepository;
+
+/**
+ * Dashboard counters kept in memory and updated by EmployeeService on every add,
+ * update and delete, so reading them never touches MySQL. A scheduled job swaps in
+ * fresh numbers from SQL aggregates to repair any drift (other instances, direct SQL).
+ */
+@Service
+public class EmployeeStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeStatsService.class);
+    static final String UNASSIGNED = "Unassigned";
+
+    private final EmployeeRepository repository;
+    private final int maxWindowDays;
+
+    // Updates share the read lock; a reconcile takes the write lock to start its journal and to swap
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconciling = new ReentrantLock();
+    private volatile Counters counters = new Counters();
+    // Updates since the running reconcile started, or null
+    private Queue<Delta> journal;
+
+    public EmployeeStatsService(EmployeeRepository repository,
+            @Value("${app.stats.max-window-days:365}") int maxWindowDays) {
+        this.repository = repository;
+        this.maxWindowDays = maxWindowDays;
+    }
+
+    private static final class Counters {
+        final AtomicLong total = new AtomicLong();
+        final ConcurrentHashMap<String, AtomicLong> byDepartment = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<LocalDate, AtomicLong> byJoinedDate = new ConcurrentSkipListMap<>();
+        LocalDateTime reconciledAt;
+    }
+
+    private record Delta(String department, LocalDate joinedDate, long headcount, long count) {
+    }
+
+    public void onAdded(String department, LocalDate joinedDate) {
+        record(new Delta(department, joinedDate, 1, 1));
+    }
+
+    public void onRemoved(String department, LocalDate joinedDate) {
+        record(new Delta(department, joinedDate, -1, -1));
+    }
+
+    public void onChanged(String oldDepartment, LocalDate oldJoinedDate, String newDepartment,
+            LocalDate newJoinedDate) {
+        record(new Delta(oldDepartment, oldJoinedDate, 0, -1), new Delta(newDepartment, newJoinedDate, 0, 1));
+    }
+
+    private void record(Delta... deltas) {
+        lock.readLock().lock();
+        try {
+            for (Delta delta : deltas) {
+                apply(counters, delta);
+                if (journal != null) {
+                    journal.add(delta);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public EmployeeStatsDTO snapshot(int windowDays) {
+        int window = Math.max(0, Math.min(windowDays, maxWindowDays));
+        Counters c = counters;
+
+        Map<String, Long> departmentCounts = new TreeMap<>();
+        c.byDepartment.forEach((dept, count) -> {
+            if (count.get() > 0) {
+                departmentCounts.put(dept, count.get());
+            }
+        });
+        int departments = departmentCounts.size() - (departmentCounts.containsKey(UNASSIGNED) ? 1 : 0);
+
+        long recentHires = 0;
+        LocalDate today = LocalDate.now();
+        for (AtomicLong count : c.byJoinedDate.subMap(today.minusDays(window), true, today, true).values()) {
+            recentHires += count.get();
+        }
+        return new EmployeeStatsDTO(c.total.get(), departments, departmentCounts, recentHires, window,
+                c.reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-ms:300000}", initialDelayString = "${app.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        reconciling.lock();
+        try {
+            Queue<Delta> changes = new ConcurrentLinkedQueue<>();
+            setJournal(changes);
+            Counters fresh = new Counters();
+            try {
+                for (Object[] row : repository.countByDepartment()) {
+                    long count = ((Number) row[1]).longValue();
+                    // null and a department literally named "Unassigned" share the bucket
+                    fresh.byDepartment.merge(row[0] == null ? UNASSIGNED : (String) row[0], new AtomicLong(count),
+                            (a, b) -> new AtomicLong(a.get() + b.get()));
+                    fresh.total.addAndGet(count);
+                }
+                for (Object[] row : repository.countByJoinedDateSince(LocalDate.now().minusDays(maxWindowDays))) {
+                    fresh.byJoinedDate.put((LocalDate) row[0], new AtomicLong(((Number) row[1]).longValue()));
+                }
+            } catch (RuntimeException e) {
+                setJournal(null);
+                throw e;
+            }
+            fresh.reconciledAt = LocalDateTime.now();
+
+            lock.writeLock().lock();
+            try {
+                // Updates made while the aggregates ran would be lost with the old counters. One that
+                // committed just before the SELECT read it ends up counted twice until the next reconcile
+                for (Delta delta : changes) {
+                    apply(fresh, delta);
+                }
+                journal = null;
+                long drift = fresh.total.get() - counters.total.get();
+                if (counters.reconciledAt != null && drift != 0) {
+                    log.info("Employee stats reconciled, headcount drift {}", drift);
+                }
+                counters = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reconciling.unlock();
+        }
+    }
+
+    private void setJournal(Queue<Delta> changes) {
+        lock.writeLock().lock();
+        try {
+            journal = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Counters c, Delta delta) {
+        c.total.addAndGet(delta.headcount());
+        adjust(c, delta.department(), delta.joinedDate(), delta.count());
+    }
+
+    private void adjust(Counters c, String department, LocalDate joinedDate, long delta) {
+        c.byDepartment.computeIfAbsent(department == null ? UNASSIGNED : department, d -> new AtomicLong())
+                .addAndGet(delta);
+        if (joinedDate != null && !joinedDate.isBefore(LocalDate.now().minusDays(maxWindowDays))) {
+            c.byJoinedDate.computeIfAbsent(joinedDate, d -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+}
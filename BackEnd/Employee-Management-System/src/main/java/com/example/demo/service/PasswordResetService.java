@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.PasswordResetTokenStore;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+@Service
+public class PasswordResetService {
+
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final PasswordResetTokenStore tokenStore;
+    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokens;
+
+    public PasswordResetService(UserRepository userRepository, EmailService emailService,
+            PasswordResetTokenStore tokenStore, PasswordEncoder passwordEncoder, RefreshTokenService refreshTokens) {
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.tokenStore = tokenStore;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokens = refreshTokens;
+    }
+
+    // Token and outbox row commit together: either the user gets a mail for this token or nothing changes
+    @Transactional
+    public void requestReset(User user) {
+        String token = tokenStore.issue(user.getId());
+
+        String resetLink = "http://localhost:5173/reset-password?token=" + token;
+        String subject = "Password Reset Request";
+        String body = "Hello " + user.getUsername() + ",\n\n" +
+                "You requested to reset your password. Click the link below to reset it:\n" +
+                resetLink + "\n\n" +
+                "This link will expire in " + describe(tokenStore.getTtl()) + ".\n\n" +
+                "If you didn't request this, please ignore this email.";
+
+        emailService.queueEmail(user.getEmail(), subject, body);
+    }
+
+    // False when the token is unknown, expired or already used
+    @Transactional
+    public boolean resetPassword(String token, String newPassword) {
+        Long userId = tokenStore.consume(token);
+        if (userId == null) {
+            return false;
+        }
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return false;
+        }
+        user.setPassword(passwordEncoder.encode(newPassword));
+        userRepository.save(user);
+        // Sessions opened with the old password end here
+        refreshTokens.revokeUser(user.getUsername());
+        return true;
+    }
+
+    private static String describe(Duration ttl) {
+        long minutes = ttl.toMinutes();
+        if (minutes % 60 == 0) {
+            return minutes == 60 ? "1 hour" : minutes / 60 + " hours";
+        }
+        return minutes + " minutes";
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed photo store on local disk. Each blob is written once under
+ * {@code <dir>/<first two hex chars>/<sha-256>} so identical uploads share a file
+ * and the hash doubles as a strong ETag.
+ *
+ * <p>The stored content type comes from the file's leading bytes, never from the
+ * client: only JPEG, PNG, WebP and GIF are kept, so nothing the API serves back can be
+ * HTML or SVG.
+ */
+@Service
+public class PhotoStorageService {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    public static final Set<String> CONTENT_TYPES = Set.of("image/jpeg", "image/png", "image/webp", "image/gif");
+
+    private final Path root;
+    private final long maxBytes;
+
+    public PhotoStorageService(@Value("${app.photos.dir:uploads/photos}") String dir,
+            @Value("${app.photos.max-bytes:5242880}") long maxBytes) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    public record StoredPhoto(String hash, String contentType, long size) {
+    }
+
+    /** The upload is not one of {@link #CONTENT_TYPES}; callers answer 400. */
+    public static class UnsupportedPhotoException extends IllegalArgumentException {
+        public UnsupportedPhotoException() {
+            super("Photo must be a JPEG, PNG, WebP or GIF image");
+        }
+    }
+
+    public StoredPhoto store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        long size;
+        try {
+            try (DigestInputStream din = new DigestInputStream(in, digest);
+                    OutputStream out = Files.newOutputStream(tmp)) {
+                size = copyLimited(din, out);
+            }
+            String contentType = sniff(tmp);
+            if (contentType == null) {
+                throw new UnsupportedPhotoException();
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, target);
+                } catch (FileAlreadyExistsException e) {
+                    // a concurrent upload of the same content won the race
+                }
+            }
+            return new StoredPhoto(hash, contentType, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Accepts the "data:image/png;base64,...." strings the frontend posts; the declared type is ignored
+    public StoredPhoto storeDataUrl(String dataUrl) throws IOException {
+        String payload = dataUrl;
+        if (dataUrl.startsWith("data:")) {
+            int comma = dataUrl.indexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Malformed photo data URL");
+            }
+            payload = dataUrl.substring(comma + 1);
+        }
+        InputStream decoded = Base64.getMimeDecoder()
+                .wrap(new ByteArrayInputStream(payload.getBytes(StandardCharsets.US_ASCII)));
+        return store(decoded);
+    }
+
+    // Magic numbers of the accepted formats; null for anything else
+    static String sniff(Path file) throws IOException {
+        byte[] head = new byte[12];
+        int n;
+        try (InputStream in = Files.newInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        }
+        if (n >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (n >= 8 && startsWith(head, 0, new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' })) {
+            return "image/png";
+        }
+        if (n >= 6 && (startsWith(head, 0, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                || startsWith(head, 0, "GIF89a".getBytes(StandardCharsets.US_ASCII)))) {
+            return "image/gif";
+        }
+        if (n >= 12 && startsWith(head, 0, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                && startsWith(head, 8, "WEBP".getBytes(StandardCharsets.US_ASCII))) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid photo reference");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean exists(String hash) {
+        return Files.isRegularFile(resolve(hash));
+    }
+
+    private long copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            total += n;
+            if (total > maxBytes) {
+                throw new IllegalArgumentException("Photo exceeds " + maxBytes + " bytes");
+            }
+            out.write(buffer, 0, n);
+        }
+        return total;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.TokenRevocationList;
+
+/**
+ * Short-lived access tokens paired with long-lived, single-use refresh tokens. A login
+ * starts a family; each refresh uses up the presented token and issues the next one in
+ * the same family. Presenting a used token again means it was copied, so the whole
+ * family and every access token it issued are revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int REVOKE_BATCH = 1_000;
+
+    private final RefreshTokenRepository repository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocations;
+    private final Duration refreshTtl;
+
+    public RefreshTokenService(RefreshTokenRepository repository, UserRepository userRepository, JwtUtil jwtUtil,
+            TokenRevocationList revocations, @Value("${app.jwt.refresh-ttl:14d}") Duration refreshTtl) {
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.revocations = revocations;
+        this.refreshTtl = refreshTtl;
+    }
+
+    // Login: a new family
+    @Transactional
+    public Map<String, String> issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    // Returns the next token pair, or null when the refresh token cannot be used
+    @Transactional
+    public Map<String, String> refresh(String refreshToken) {
+        RefreshToken current = repository.findForRotation(hash(refreshToken)).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (current == null || current.getRevokedAt() != null || current.getExpiresAt().isBefore(now)) {
+            return null;
+        }
+        if (current.getUsedAt() != null) {
+            log.warn("Refresh token reused in family {}; revoking the family", current.getFamilyId());
+            revokeFamily(current.getFamilyId(), now);
+            return null;
+        }
+        User user = userRepository.findByUsername(current.getUsername()).orElse(null);
+        if (user == null) {
+            revokeFamily(current.getFamilyId(), now);
+            return null;
+        }
+        current.setUsedAt(now);
+        return issue(user, current.getFamilyId());
+    }
+
+    @Transactional
+    public void logout(String refreshToken) {
+        repository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // Ends every session of these users, e.g. when they are offboarded or reset their password
+    @Transactional
+    public int revokeUsers(Collection<String> usernames) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> all = new ArrayList<>(usernames);
+        int sessions = 0;
+        for (int from = 0; from < all.size(); from += REVOKE_BATCH) {
+            List<String> batch = all.subList(from, Math.min(from + REVOKE_BATCH, all.size()));
+            repository.revokeAccessTokensOfUsers(batch, now);
+            sessions += repository.revokeUsers(batch, now);
+        }
+        reloadAfterCommit();
+        return sessions;
+    }
+
+    @Transactional
+    public int revokeUser(String username) {
+        return revokeUsers(List.of(username));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private Map<String, String> issue(User user, String familyId) {
+        JwtUtil.IssuedToken access = jwtUtil.issue(user.getUsername(), user.getRole());
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken row = new RefreshToken();
+        row.setTokenHash(hash(refreshToken));
+        row.setFamilyId(familyId);
+        row.setUsername(user.getUsername());
+        row.setAccessTokenId(access.id().toString());
+        row.setAccessExpiresAt(LocalDateTime.ofInstant(access.expiresAt(), ZoneId.systemDefault()));
+        row.setCreatedAt(now);
+        row.setExpiresAt(now.plus(refreshTtl));
+        repository.save(row);
+
+        return Map.of(
+                "token", access.token(),
+                "refreshToken", refreshToken,
+                "expiresIn", Long.toString(jwtUtil.getAccessTtl().toSeconds()),
+                "role", user.getRole());
+    }
+
+    private void revokeFamily(String familyId, LocalDateTime now) {
+        repository.revokeAccessTokensOfFamily(familyId, now);
+        repository.revokeFamily(familyId, now);
+        reloadAfterCommit();
+    }
+
+    // This node sees the revocation at once; other nodes on their next scheduled reload
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revocations.reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocations.reload();
+            }
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.demo.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Square JPEG thumbnails of stored photos, one per configured size. A photo is decoded
+ * once and every size is rendered from that decode on a small bounded worker pool, so
+ * request threads never decode or scale images. Thumbnails are keyed by the photo
+ * hash, written next to the originals under {@code thumbs/}, and kept in a
+ * byte-bounded in-memory cache.
+ *
+ * <p>Uploads call {@link #schedule} to render ahead of the first read. When the queue
+ * is full that work is dropped ({@code photos.thumbnails.dropped}) and the thumbnail is
+ * rendered on first read instead. A read that finds the queue full gets
+ * {@link RejectedExecutionException}, so a bulk upload degrades into retryable misses
+ * rather than blocked requests.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private record Key(String hash, int size) {
+    }
+
+    private final PhotoStorageService photoStorage;
+    private final Path root;
+    private final int[] sizes;
+    private final float quality;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Cache<Key, byte[]> cache;
+    // One render per photo at a time; concurrent readers share it
+    private final Map<String, CompletableFuture<Map<Integer, byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter dropped;
+
+    public ThumbnailService(PhotoStorageService photoStorage, MeterRegistry registry,
+            @Value("${app.photos.dir:uploads/photos}") String dir,
+            @Value("${app.photos.thumbnails.sizes:48,128,512}") int[] sizes,
+            @Value("${app.photos.thumbnails.quality:0.85}") float quality,
+            @Value("${app.photos.thumbnails.max-pixels:40000000}") long maxPixels,
+            @Value("${app.photos.thumbnails.cache-bytes:33554432}") long cacheBytes,
+            @Value("${app.photos.thumbnails.threads:0}") int threads,
+            @Value("${app.photos.thumbnails.queue:256}") int queue) throws IOException {
+        this.photoStorage = photoStorage;
+        this.root = Paths.get(dir).toAbsolutePath().normalize().resolve("thumbs");
+        this.sizes = Arrays.stream(sizes).sorted().distinct().toArray();
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        Files.createDirectories(root.resolve("tmp"));
+
+        // Scaling is CPU-bound; leave most cores to the request threads
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("thumbnailer-");
+        factory.setDaemon(true);
+        factory.setThreadPriority(Thread.NORM_PRIORITY - 1);
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queue), factory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "thumbnailer", Tags.empty()).bindTo(registry);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheBytes)
+                .weigher((Key key, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "photo.thumbnails");
+        this.dropped = Counter.builder("photos.thumbnails.dropped").register(registry);
+    }
+
+    public boolean supports(int size) {
+        return Arrays.binarySearch(sizes, size) >= 0;
+    }
+
+    /** Renders every size of a freshly stored photo in the background, if there is room. */
+    public void schedule(String hash) {
+        if (hash == null || Files.isRegularFile(path(hash, sizes[sizes.length - 1]))) {
+            return;
+        }
+        try {
+            render(hash).exceptionally(e -> {
+                log.debug("Could not render thumbnails of {}: {}", hash, e.getMessage());
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * The JPEG bytes of one size of a stored photo. Completes at once from memory or
+     * disk, otherwise once the workers have rendered it; completes exceptionally with
+     * {@link IllegalArgumentException} when the original is not a decodable image.
+     *
+     * @throws RejectedExecutionException when it has to be rendered and the queue is full
+     */
+    public CompletableFuture<byte[]> thumbnail(String hash, int size) {
+        Key key = new Key(hash, size);
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        try {
+            byte[] stored = Files.readAllBytes(path(hash, size));
+            cache.put(key, stored);
+            return CompletableFuture.completedFuture(stored);
+        } catch (NoSuchFileException e) {
+            // not rendered yet
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return render(hash).thenApply(rendered -> rendered.get(size));
+    }
+
+    private CompletableFuture<Map<Integer, byte[]>> render(String hash) {
+        CompletableFuture<Map<Integer, byte[]>> mine = new CompletableFuture<>();
+        CompletableFuture<Map<Integer, byte[]>> running = inFlight.putIfAbsent(hash, mine);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    mine.complete(renderAll(hash));
+                } catch (Throwable e) {
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(hash, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        return mine;
+    }
+
+    private Map<Integer, byte[]> renderAll(String hash) throws IOException {
+        BufferedImage source = decode(photoStorage.resolve(hash), sizes[sizes.length - 1]);
+        Map<Integer, byte[]> rendered = new LinkedHashMap<>();
+        // Largest first, each size scaled down from the previous one
+        BufferedImage current = cropSquare(source);
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            current = scale(current, sizes[i]);
+            byte[] jpeg = encode(current);
+            write(path(hash, sizes[i]), jpeg);
+            cache.put(new Key(hash, sizes[i]), jpeg);
+            rendered.put(sizes[i], jpeg);
+        }
+        return rendered;
+    }
+
+    // Reads the header first so oversized images are refused before any pixels are
+    // allocated, and lets the decoder skip rows and columns the largest size cannot use
+    private BufferedImage decode(Path file, int largest) throws IOException {
+        try (InputStream in = Files.newInputStream(file);
+                ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Photo is not a supported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxPixels) {
+                    throw new IllegalArgumentException("Photo is " + width + "x" + height + ", too large to scale");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.max(1, Math.min(width, height) / (2L * largest));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre square on an opaque canvas, since JPEG has no alpha channel
+    static BufferedImage cropSquare(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        BufferedImage square = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = square.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, side, side);
+            g.drawImage(source, 0, 0, side, side, x, y, x + side, y + side, null);
+        } finally {
+            g.dispose();
+        }
+        return square;
+    }
+
+    // Halves with bilinear filtering until close to the target, which keeps quality
+    // near bicubic at a fraction of the cost; never scales up
+    static BufferedImage scale(BufferedImage square, int size) {
+        BufferedImage current = square;
+        while (current.getWidth() > size) {
+            int next = Math.max(size, current.getWidth() / 2);
+            BufferedImage smaller = new BufferedImage(next, next, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = smaller.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, next, next, null);
+            } finally {
+                g.dispose();
+            }
+            current = smaller;
+        }
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private void write(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "thumb-", ".part");
+        try {
+            Files.write(tmp, bytes);
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path path(String hash, int size) {
+        // resolve() validates the hash before it becomes part of a path
+        photoStorage.resolve(hash);
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + size + ".jpg");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
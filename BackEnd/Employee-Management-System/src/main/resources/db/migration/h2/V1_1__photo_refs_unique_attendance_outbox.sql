@@ -0,0 +1,23 @@
+-- H2 copy of mysql/V1_1__photo_refs_unique_attendance_outbox.sql
+ALTER TABLE employee ADD COLUMN photo_ref VARCHAR(64);
+ALTER TABLE employee ADD COLUMN photo_content_type VARCHAR(255);
+
+DELETE FROM attendance older
+WHERE EXISTS (SELECT 1 FROM attendance newer
+              WHERE newer.employee_id = older.employee_id AND newer.date = older.date AND newer.id > older.id);
+ALTER TABLE attendance ADD CONSTRAINT uk_attendance_employee_date UNIQUE (employee_id, date);
+
+CREATE TABLE email_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body VARCHAR(4000),
+    status ENUM ('DEAD', 'PENDING', 'SENDING', 'SENT') NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6),
+    locked_at TIMESTAMP(6),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP(6),
+    sent_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
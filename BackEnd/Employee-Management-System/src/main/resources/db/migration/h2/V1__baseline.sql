@@ -0,0 +1,41 @@
+-- H2 copy of mysql/V1__baseline.sql, used by tests and local runs
+
+CREATE TABLE employee (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    department VARCHAR(255),
+    phone VARCHAR(255),
+    address VARCHAR(255),
+    marital_status VARCHAR(255),
+    education VARCHAR(255),
+    company_role VARCHAR(255),
+    salary FLOAT(53),
+    photo CLOB,
+    username VARCHAR(255),
+    joined_date DATE,
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    reset_token VARCHAR(255),
+    reset_token_expiry TIMESTAMP(6),
+    PRIMARY KEY (id),
+    UNIQUE (username),
+    UNIQUE (email)
+);
+
+CREATE TABLE attendance (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    employee_id BIGINT,
+    date DATE,
+    status VARCHAR(255),
+    PRIMARY KEY (id),
+    FOREIGN KEY (employee_id) REFERENCES employee (id)
+);
@@ -0,0 +1,16 @@
+-- H2 copy of mysql/V2__lookup_indexes.sql
+CREATE INDEX idx_employee_username ON employee (username);
+CREATE INDEX idx_employee_email ON employee (email);
+CREATE INDEX idx_users_reset_token ON users (reset_token);
+
+CREATE INDEX idx_employee_department ON employee (department);
+CREATE INDEX idx_employee_joined_date ON employee (joined_date);
+
+CREATE INDEX idx_attendance_date ON attendance (date);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+ALTER TABLE employee ADD COLUMN name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(name));
+ALTER TABLE employee ADD COLUMN department_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(department));
+CREATE INDEX idx_employee_name_lower ON employee (name_lower);
+CREATE INDEX idx_employee_department_lower ON employee (department_lower);
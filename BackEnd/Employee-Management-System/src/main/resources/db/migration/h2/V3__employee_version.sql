@@ -0,0 +1,5 @@
+-- H2 copy of mysql/V3__employee_version.sql
+ALTER TABLE employee ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE employee ADD COLUMN updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) NOT NULL;
+
+UPDATE employee SET updated_at = created_at WHERE created_at IS NOT NULL;
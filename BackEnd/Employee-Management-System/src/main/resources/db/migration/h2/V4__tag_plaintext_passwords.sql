@@ -0,0 +1,5 @@
+-- Passwords were stored in plaintext. Tag them with the {noop} id so the delegating
+-- PasswordEncoder can still check them; AuthService replaces each with a {bcrypt}
+-- hash on that user's next successful login.
+UPDATE users SET password = CONCAT('{noop}', password)
+WHERE password IS NOT NULL AND password NOT LIKE '{%}%';
@@ -0,0 +1,26 @@
+-- H2 copy of mysql/V5__refresh_tokens.sql
+CREATE TABLE refresh_token (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    access_token_id VARCHAR(36) NOT NULL,
+    access_expires_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    used_at TIMESTAMP(6),
+    revoked_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_username ON refresh_token (username);
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
+
+CREATE TABLE revoked_token (
+    token_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (token_id)
+);
+CREATE INDEX idx_revoked_token_expires ON revoked_token (expires_at);
@@ -0,0 +1,14 @@
+-- H2 copy of mysql/V6__password_reset_tokens.sql
+CREATE TABLE password_reset_token (
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (token_hash)
+);
+CREATE INDEX idx_password_reset_token_user ON password_reset_token (user_id);
+CREATE INDEX idx_password_reset_token_expires ON password_reset_token (expires_at);
+
+DROP INDEX idx_users_reset_token;
+ALTER TABLE users DROP COLUMN reset_token;
+ALTER TABLE users DROP COLUMN reset_token_expiry;
@@ -0,0 +1,6 @@
+-- H2 copy of mysql/V7__tag_remaining_plaintext_passwords.sql
+-- V4 skipped any password shaped like '{...}...', taking it for an encoder id. The
+-- application only writes {bcrypt} hashes and V4's {noop} tags, so anything else is
+-- still plaintext: tag it too. A no-op where V4 already caught every row.
+UPDATE users SET password = CONCAT('{noop}', password)
+WHERE password IS NOT NULL AND password NOT LIKE '{bcrypt}%' AND password NOT LIKE '{noop}%';
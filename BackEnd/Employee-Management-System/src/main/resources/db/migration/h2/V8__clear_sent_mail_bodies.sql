@@ -0,0 +1,4 @@
+-- H2 copy of mysql/V8__clear_sent_mail_bodies.sql
+-- Delivered mail no longer keeps its body: reset mails carry a live link, and the
+-- token store only ever holds its hash
+UPDATE email_outbox SET body = NULL WHERE status = 'SENT';
@@ -0,0 +1,31 @@
+-- What this application added to the schema before it moved to Flyway. Databases
+-- baselined at V1 never ran V1, so everything beyond the ddl-auto schema starts here.
+
+-- Photos move from the Base64 photo column into the blob store; PhotoMigrationRunner copies
+-- the legacy values over and clears the old column
+ALTER TABLE employee
+    ADD COLUMN photo_ref VARCHAR(64),
+    ADD COLUMN photo_content_type VARCHAR(255);
+
+-- Attendance upserts need one row per employee and day. Keep the latest mark of any
+-- duplicates before adding the key.
+DELETE older FROM attendance older
+    JOIN attendance newer
+        ON newer.employee_id = older.employee_id AND newer.date = older.date AND newer.id > older.id;
+ALTER TABLE attendance ADD CONSTRAINT uk_attendance_employee_date UNIQUE (employee_id, date);
+
+-- Outgoing mail, written in the same transaction as the change that sends it
+CREATE TABLE email_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body VARCHAR(4000),
+    status ENUM ('DEAD', 'PENDING', 'SENDING', 'SENT') NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at DATETIME(6),
+    locked_at DATETIME(6),
+    last_error VARCHAR(1000),
+    created_at DATETIME(6),
+    sent_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,42 @@
+-- Schema as previously created by hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE employee (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    department VARCHAR(255),
+    phone VARCHAR(255),
+    address VARCHAR(255),
+    marital_status VARCHAR(255),
+    education VARCHAR(255),
+    company_role VARCHAR(255),
+    salary FLOAT(53),
+    photo LONGTEXT,
+    username VARCHAR(255),
+    joined_date DATE,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255) NOT NULL,
+    reset_token VARCHAR(255),
+    reset_token_expiry DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE (username),
+    UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE attendance (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    employee_id BIGINT,
+    date DATE,
+    status VARCHAR(255),
+    PRIMARY KEY (id),
+    FOREIGN KEY (employee_id) REFERENCES employee (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- Single-row lookups: login profile, duplicate checks, reset links
+CREATE INDEX idx_employee_username ON employee (username);
+CREATE INDEX idx_employee_email ON employee (email);
+CREATE INDEX idx_users_reset_token ON users (reset_token);
+
+-- Department filters and rollups, hires by joined date
+CREATE INDEX idx_employee_department ON employee (department);
+CREATE INDEX idx_employee_joined_date ON employee (joined_date);
+
+-- Monthly summaries filter on date alone; (employee_id, date) is covered by uk_attendance_employee_date
+CREATE INDEX idx_attendance_date ON attendance (date);
+
+-- Outbox polling
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+-- Lowercased copies so case-insensitive search compares a stored, indexed value
+ALTER TABLE employee
+    ADD COLUMN name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(name)) STORED,
+    ADD COLUMN department_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(department)) STORED;
+CREATE INDEX idx_employee_name_lower ON employee (name_lower);
+CREATE INDEX idx_employee_department_lower ON employee (department_lower);
@@ -0,0 +1,7 @@
+-- Optimistic locking and Last-Modified for employees. The defaults cover rows written over JDBC
+-- (bulk import); JPA writes bump both through @Version and @PreUpdate.
+ALTER TABLE employee
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+UPDATE employee SET updated_at = created_at WHERE created_at IS NOT NULL;
@@ -0,0 +1,30 @@
+-- Refresh tokens are opaque and stored as SHA-256 hashes. Every refresh uses up its row and adds
+-- the next one in the same family; replaying a used token revokes the whole family.
+CREATE TABLE refresh_token (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    -- the access token issued alongside, so revoking the family also revokes it
+    access_token_id VARCHAR(36) NOT NULL,
+    access_expires_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    used_at DATETIME(6),
+    revoked_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+) ENGINE = InnoDB;
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_username ON refresh_token (username);
+CREATE INDEX idx_refresh_token_expires ON refresh_token (expires_at);
+
+-- Revoked access token ids, kept only until the token would have expired anyway. Every node
+-- loads this into memory; requests never query it.
+CREATE TABLE revoked_token (
+    token_id VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id)
+) ENGINE = InnoDB;
+CREATE INDEX idx_revoked_token_expires ON revoked_token (expires_at);
@@ -0,0 +1,15 @@
+-- Reset links move out of users into their own table, keyed by the SHA-256 of the token so the
+-- database never holds a usable link. Links still outstanding in users are dropped; those
+-- users request a new one.
+CREATE TABLE password_reset_token (
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_hash)
+) ENGINE = InnoDB;
+CREATE INDEX idx_password_reset_token_user ON password_reset_token (user_id);
+CREATE INDEX idx_password_reset_token_expires ON password_reset_token (expires_at);
+
+DROP INDEX idx_users_reset_token ON users;
+ALTER TABLE users DROP COLUMN reset_token, DROP COLUMN reset_token_expiry;
@@ -0,0 +1,3 @@
+-- Delivered mail no longer keeps its body: reset mails carry a live link, and the
+-- token store only ever holds its hash
+UPDATE email_outbox SET body = NULL WHERE status = 'SENT';
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.service.PhotoStorageService;
+
+class PhotoMigrationRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void movesLegacyPhotosIntoTheStore() throws Exception {
+        JdbcTemplate jdbc = database("photo-legacy");
+        jdbc.execute("CREATE TABLE employee (id BIGINT PRIMARY KEY, photo CLOB, photo_ref VARCHAR(64), "
+                + "photo_content_type VARCHAR(255), version BIGINT DEFAULT 0, updated_at TIMESTAMP(6))");
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "png", png);
+        jdbc.update("INSERT INTO employee (id, photo) VALUES (1, ?)",
+                "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray()));
+        PhotoStorageService storage = new PhotoStorageService(dir.toString(), 1 << 20);
+
+        new PhotoMigrationRunner(jdbc, storage).run();
+
+        Map<String, Object> row = jdbc.queryForMap("SELECT photo, photo_ref, photo_content_type FROM employee");
+        assertThat(row.get("photo")).isNull();
+        assertThat(row.get("photo_content_type")).isEqualTo("image/png");
+        assertThat(storage.exists((String) row.get("photo_ref"))).isTrue();
+    }
+
+    @Test
+    void skipsSchemasWithoutTheLegacyColumn() throws Exception {
+        JdbcTemplate jdbc = spy(database("photo-fresh"));
+        jdbc.execute("CREATE TABLE employee (id BIGINT PRIMARY KEY, photo_ref VARCHAR(64))");
+
+        new PhotoMigrationRunner(jdbc, new PhotoStorageService(dir.toString(), 1 << 20)).run();
+
+        // no query against the missing column
+        assertThat(mockingDetails(jdbc).getInvocations()).extracting(invocation -> invocation.getMethod().getName())
+                .doesNotContain("query", "batchUpdate");
+    }
+
+    private static JdbcTemplate database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        return new JdbcTemplate(dataSource);
+    }
+}
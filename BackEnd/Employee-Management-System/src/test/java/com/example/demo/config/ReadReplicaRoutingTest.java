@@ -0,0 +1,109 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.service.EmailService;
+import com.example.demo.service.EmployeeService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// The application with a primary and one replica, each its own embedded database holding
+// different names for the same employees, so every read shows where it was routed
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY,
+        "app.datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA,
+        "app.datasource.read-your-writes=1s",
+        "app.mail.outbox.poll-ms=50",
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY = "jdbc:h2:mem:ems-routing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA = "jdbc:h2:mem:ems-routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+    private static final long WINDOW_MILLIS = 1000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void backgroundJobsDoNotHoldReadsButUserWritesDo() throws Exception {
+        for (long id = 101; id <= 105; id++) {
+            insert(PRIMARY, id, "Primary");
+            insert(REPLICA, id, "Replica");
+        }
+
+        // The outbox dispatcher keeps opening write transactions the whole time
+        double before = registry.counter("datasource.routed", "target", "primary").count();
+        Thread.sleep(WINDOW_MILLIS + 300);
+        assertThat(registry.counter("datasource.routed", "target", "primary").count()).isGreaterThan(before + 5);
+        assertThat(employeeService.getById(101L).getName()).isEqualTo("Replica");
+
+        login("alice");
+        employeeService.patchEmployee(104L, Map.of("department", "Ops"), null);
+
+        SecurityContextHolder.clearContext();
+        assertThat(employeeService.getById(102L).getName()).isEqualTo("Primary");
+        login("bob");
+        assertThat(employeeService.searchByIdNameOrDepartment("103")).singleElement()
+                .extracting("name").isEqualTo("Replica");
+        login("alice");
+        assertThat(employeeService.searchByIdNameOrDepartment("103")).singleElement()
+                .extracting("name").isEqualTo("Primary");
+
+        Thread.sleep(WINDOW_MILLIS + 300);
+        SecurityContextHolder.clearContext();
+        // A write to a table no shared cache reads, then picked up by the dispatcher
+        emailService.queueEmail("someone@example.com", "Hello", "Body");
+        Thread.sleep(300);
+        assertThat(employeeService.getById(105L).getName()).isEqualTo("Replica");
+    }
+
+    private static void insert(String url, long id, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO employee (id, name, department, joined_date, created_at) "
+                                + "VALUES (?, ?, 'R&D', CURRENT_DATE, CURRENT_TIMESTAMP)")) {
+            statement.setLong(1, id);
+            statement.setString(2, name);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica), Duration.ofMillis(300),
+                Set.of("shared_row"), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void onlyReadOnlyServiceReadsGoToTheReplica() throws Exception {
+        // not read-only: primary, but a SELECT is no write
+        assertThat(read()).isEqualTo("primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        // read-only but not a service read (e.g. a Spring Data default): primary
+        assertThat(read()).isEqualTo("primary");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("replica");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("replica");
+    }
+
+    @Test
+    void readYourWritesIsPerUserUnlessASharedTableChanged() throws Exception {
+        login("alice");
+        write("UPDATE node SET name = name");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("primary");
+        login("bob");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("replica");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("replica");
+
+        login("alice");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        write("UPDATE shared_row SET name = name");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        login("bob");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("replica");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("primary");
+        SecurityContextHolder.clearContext();
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("primary");
+
+        Thread.sleep(350);
+        login("alice");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("replica");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("replica");
+    }
+
+    @Test
+    void onlyCommittedStatementsThatChangedRowsCount() throws Exception {
+        login("alice");
+        try (Connection connection = routing.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE shared_row SET name = name WHERE 1 = 0");
+        }
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write("UPDATE shared_row SET name = name");
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            // not committed yet
+            assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("replica");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("replica");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("replica");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            write("UPDATE shared_row SET name = name");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("primary");
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.SHARED)).isEqualTo("primary");
+    }
+
+    @Test
+    void failsOverToThePrimaryWhileTheReplicaIsDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        routing.checkReplicas();
+        assertThat(routing.replicas().get(0).healthy).isTrue();
+
+        replica.close();
+
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("primary");
+        assertThat(routing.replicas().get(0).healthy).isFalse();
+        routing.checkReplicas();
+        assertThat(routing.replicas().get(0).healthy).isFalse();
+        assertThat(serviceRead(ReadWriteRoutingDataSource.Scope.USER)).isEqualTo("primary");
+    }
+
+    private String serviceRead(ReadWriteRoutingDataSource.Scope scope) throws SQLException {
+        ReadWriteRoutingDataSource.Scope outer = ReadWriteRoutingDataSource.enterReplicaRead(scope);
+        try {
+            return read();
+        } finally {
+            ReadWriteRoutingDataSource.exitReplicaRead(outer);
+        }
+    }
+
+    private String read() throws SQLException {
+        try (Connection connection = routing.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private void write(String sql) throws SQLException {
+        try (Connection connection = routing.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            assertThat(statement.executeUpdate()).isPositive();
+        }
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static HikariDataSource database(String name) throws SQLException {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String table : List.of("node", "shared_row")) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (name VARCHAR(16))");
+                statement.execute("DELETE FROM " + table);
+                statement.execute("INSERT INTO " + table + " VALUES ('" + name + "')");
+            }
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.EmployeeDTO;
+
+class EmployeeEtagsTest {
+
+    @Test
+    void pageFingerprintChangesWithAnyRowVersionOrRequest() {
+        List<EmployeeDTO> rows = List.of(row(1L, 0L), row(2L, 3L));
+        String etag = EmployeeEtags.fingerprint(rows, "sales", 2L);
+
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(EmployeeEtags.fingerprint(List.of(row(1L, 0L), row(2L, 3L)), "sales", 2L)).isEqualTo(etag);
+        assertThat(EmployeeEtags.fingerprint(List.of(row(1L, 0L), row(2L, 4L)), "sales", 2L)).isNotEqualTo(etag);
+        assertThat(EmployeeEtags.fingerprint(List.of(row(1L, 0L)), "sales", 1L)).isNotEqualTo(etag);
+        assertThat(EmployeeEtags.fingerprint(rows, "sale", 2L)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void ifMatchParsing() {
+        assertThat(EmployeeEtags.expectedVersion("\"7\"")).isEqualTo(7L);
+        assertThat(EmployeeEtags.expectedVersion(" \"7\" ")).isEqualTo(7L);
+        assertThat(EmployeeEtags.expectedVersion("*")).isNull();
+        // If-Match uses strong comparison, so weak tags never match
+        assertThat(EmployeeEtags.expectedVersion("W/\"7\"")).isEqualTo(-1L);
+        assertThat(EmployeeEtags.expectedVersion("\"abc\"")).isEqualTo(-1L);
+    }
+
+    private static EmployeeDTO row(Long id, Long version) {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setId(id);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class EmployeeDTOTest {
+
+    @Test
+    void retainsOnlyTheRequestedColumns() {
+        EmployeeDTO dto = new EmployeeDTO(7L, "Ada", "ada@example.com", "R&D", "Engineer", "London",
+                LocalDate.of(2020, 1, 1), null, 3L).retain(Set.of("name"));
+
+        assertThat(dto).isEqualTo(new EmployeeDTO(7L, "Ada", null, null, null, null, null, null, 3L));
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        EmployeeDTO.checkFields(EmployeeDTO.FIELDS);
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeDTO.checkFields(Set.of("name", "salary")))
+                .withMessageContaining("salary");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.entity.Attendance;
+
+class AttendanceBitmapIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 5);
+
+    @Test
+    void keepsMarksMadeWhileARebuildScans() throws Exception {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:bitmap-rebuild;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = database.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE attendance (employee_id BIGINT, date DATE, status VARCHAR(16))");
+            statement.execute("INSERT INTO attendance VALUES (1, DATE '2026-01-05', 'PRESENT'),"
+                    + " (2, DATE '2026-01-05', 'PRESENT')");
+        }
+
+        // The scan opens its connection after these marks, so it reads the rows as they were before them
+        DataSource dataSource = mock(DataSource.class);
+        AttendanceBitmapIndex[] index = new AttendanceBitmapIndex[1];
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            index[0].mark(1L, DAY, Attendance.ABSENT);
+            index[0].removeEmployee(2L);
+            index[0].mark(3L, DAY, Attendance.PRESENT);
+            return database.getConnection();
+        });
+        index[0] = new AttendanceBitmapIndex(new JdbcTemplate(dataSource), mock(EmployeeSearchIndex.class), 100);
+
+        index[0].rebuild();
+
+        assertThat(index[0].employeeStats(1L, DAY, DAY).absent()).isEqualTo(1);
+        assertThat(index[0].employeeStats(1L, DAY, DAY).present()).isZero();
+        assertThat(index[0].employeeStats(2L, DAY, DAY).present()).isZero();
+        assertThat(index[0].employeeStats(3L, DAY, DAY).present()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.repository.EmployeeRepository;
+
+class EmployeeSearchIndexTest {
+
+    @Test
+    void keepsChangesMadeWhileARebuildScans() {
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        EmployeeSearchIndex index = new EmployeeSearchIndex(repository);
+        // The scan reads the old rows; meanwhile one is renamed, one deleted and one added
+        when(repository.findSummariesAfter(anyLong(), any())).thenAnswer(invocation -> {
+            index.putAll(List.of(employee(1, "Grace Hopper"), employee(3, "Alan Turing")));
+            index.remove(2L);
+            return List.of(employee(1, "Ada Lovelace"), employee(2, "Edsger Dijkstra"));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("grace")).containsExactly(1L);
+        assertThat(index.search("ada")).isEmpty();
+        assertThat(index.search("dijkstra")).isEmpty();
+        assertThat(index.search("turing")).containsExactly(3L);
+        assertThat(index.stats().documents()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesDepartmentsLikeTheDatabaseCollation() {
+        EmployeeSearchIndex index = new EmployeeSearchIndex(mock(EmployeeRepository.class));
+        index.putAll(List.of(employee(1, "Ada", "R&D"), employee(2, "Grace", "r&d "), employee(3, "Alan", "Ops")));
+
+        assertThat(index.departmentMembers("R&D")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    private static EmployeeDTO employee(long id, String name) {
+        return employee(id, name, "R&D");
+    }
+
+    private static EmployeeDTO employee(long id, String name, String department) {
+        return new EmployeeDTO(id, name, null, department, null, null, null, null, 0L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class YearBitmapTest {
+
+    @Test
+    void countsAndRunsMatchNaiveScan() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 500; trial++) {
+            YearBitmap bitmap = new YearBitmap();
+            boolean[] present = new boolean[366];
+            // long runs as well as noise, so runs cross word boundaries
+            double density = random.nextDouble();
+            for (int day = 0; day < 366; day++) {
+                if (random.nextDouble() < density) {
+                    bitmap.mark(day, true);
+                    present[day] = true;
+                } else if (random.nextBoolean()) {
+                    bitmap.mark(day, false);
+                }
+            }
+            int from = random.nextInt(366);
+            int to = from + random.nextInt(366 - from);
+
+            int expectedCount = 0;
+            int open = 0;
+            int longest = 0;
+            for (int day = from; day <= to; day++) {
+                open = present[day] ? open + 1 : 0;
+                longest = Math.max(longest, open);
+                expectedCount += present[day] ? 1 : 0;
+            }
+
+            int[] runs = new int[2];
+            YearBitmap.scanRuns(bitmap.present, from, to, runs);
+            assertThat(YearBitmap.count(bitmap.present, from, to)).isEqualTo(expectedCount);
+            assertThat(runs[0]).as("run ending at %d", to).isEqualTo(open);
+            assertThat(runs[1]).as("longest run in [%d, %d]", from, to).isEqualTo(longest);
+        }
+    }
+
+    @Test
+    void openRunCarriesIntoNextRange() {
+        YearBitmap bitmap = new YearBitmap();
+        for (int day = 360; day <= 364; day++) {
+            bitmap.mark(day, true);
+        }
+        int[] runs = { 3, 3 };
+        YearBitmap.scanRuns(bitmap.present, 360, 364, runs);
+        assertThat(runs).containsExactly(8, 8);
+    }
+
+    @Test
+    void remarkingMovesDayBetweenSets() {
+        YearBitmap bitmap = new YearBitmap();
+        bitmap.mark(100, true);
+        bitmap.mark(100, false);
+        assertThat(YearBitmap.count(bitmap.present, 0, 365)).isZero();
+        assertThat(YearBitmap.count(bitmap.absent, 0, 365)).isEqualTo(1);
+    }
+}
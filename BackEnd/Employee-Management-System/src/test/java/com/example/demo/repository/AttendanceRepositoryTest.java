@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.entity.Attendance;
+import com.example.demo.entity.Employee;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class AttendanceRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private AttendanceRepository attendance;
+    @Autowired
+    private EmployeeRepository employees;
+
+    @Test
+    void upsertOverwritesTheDaysMark() {
+        long id = employee("Ada", "R&D").getId();
+
+        assertThat(attendance.upsert(id, DAY, Attendance.PRESENT)).isPositive();
+        attendance.upsert(id, DAY, Attendance.ABSENT);
+
+        assertThat(attendance.findRecords(id, DAY, DAY)).extracting(AttendanceDTO::getStatus)
+                .containsExactly(Attendance.ABSENT);
+    }
+
+    @Test
+    void upsertDepartmentMarksEveryMemberOnceAndOverwrites() {
+        long ada = employee("Ada", "R&D").getId();
+        long grace = employee("Grace", "R&D").getId();
+        long alan = employee("Alan", "Ops").getId();
+        attendance.upsert(grace, DAY, Attendance.PRESENT);
+
+        assertThat(attendance.upsertDepartment("R&D", DAY, Attendance.ABSENT)).isPositive();
+        attendance.upsertDepartment("R&D", DAY, Attendance.PRESENT);
+
+        assertThat(attendance.findRecords(ada, DAY, DAY)).extracting(AttendanceDTO::getStatus)
+                .containsExactly(Attendance.PRESENT);
+        assertThat(attendance.findRecords(grace, DAY, DAY)).extracting(AttendanceDTO::getStatus)
+                .containsExactly(Attendance.PRESENT);
+        assertThat(attendance.findRecords(alan, DAY, DAY)).isEmpty();
+    }
+
+    private Employee employee(String name, String department) {
+        Employee employee = new Employee();
+        employee.setName(name);
+        employee.setDepartment(department);
+        return employees.saveAndFlush(employee);
+    }
+}
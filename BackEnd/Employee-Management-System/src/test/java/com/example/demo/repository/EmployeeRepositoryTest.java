@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.demo.dto.EmployeeDTO;
+import com.example.demo.entity.Employee;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EmployeeRepositoryTest {
+
+    @Autowired
+    private EmployeeRepository employees;
+
+    @Test
+    void keysetPagesStepOverNullSortKeysInBothDirections() {
+        long a = employee("Kestrel A", null);
+        long b = employee("Kestrel B", "Ops");
+        long c = employee("Kestrel C", null);
+        long d = employee("Kestrel D", "R&D");
+        long e = employee("Kestrel E", "Ops");
+        long f = employee("Kestrel F", null);
+
+        // NULL sorts lowest, as on MySQL; ties go by id
+        assertThat(walk(false)).containsExactly(a, c, f, b, e, d);
+        assertThat(walk(true)).containsExactly(d, e, b, f, c, a);
+    }
+
+    // Follows the last row of each two-row page, the way the cursor does
+    private List<Long> walk(boolean descending) {
+        List<Long> seen = new ArrayList<>();
+        String afterValue = null;
+        Long afterId = null;
+        for (int pages = 0; pages < 10; pages++) {
+            List<EmployeeDTO> page = employees.scrollSummaries("kestrel", "department", descending, afterValue,
+                    afterId, 2);
+            page.forEach(row -> seen.add(row.getId()));
+            if (page.size() < 2) {
+                break;
+            }
+            afterValue = page.get(1).getDepartment();
+            afterId = page.get(1).getId();
+        }
+        return seen;
+    }
+
+    private long employee(String name, String department) {
+        Employee employee = new Employee();
+        employee.setName(name);
+        employee.setDepartment(department);
+        return employees.saveAndFlush(employee).getId();
+    }
+}
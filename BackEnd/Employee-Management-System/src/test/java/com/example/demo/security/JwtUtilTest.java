@@ -0,0 +1,50 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class JwtUtilTest {
+
+    private static final String OLD = "theOriginalSigningKeyOfThisApplication1";
+    private static final String NEW = "theRotatedSigningKeyThatIsNowActive12345";
+
+    @Test
+    void checksKidlessTokensOnlyAgainstTheLegacyKey() {
+        JwtUtil rotated = new JwtUtil(Map.of("k1", OLD, "k2", NEW), "k2", "k1", Duration.ofMinutes(15));
+
+        assertThat(rotated.validateToken(kidless(OLD))).isTrue();
+        // signed with the active key but without a kid: never issued by this application
+        assertThat(rotated.validateToken(kidless(NEW))).isFalse();
+        assertThat(rotated.validateToken(rotated.issue("alice", "USER").token())).isTrue();
+    }
+
+    @Test
+    void rejectsKidlessTokensOnceTheLegacyKeyIsRetired() {
+        JwtUtil retired = new JwtUtil(Map.of("k2", NEW), "k2", "k1", Duration.ofMinutes(15));
+        JwtUtil unset = new JwtUtil(Map.of("k1", OLD), "k1", Duration.ofMinutes(15));
+
+        assertThat(retired.validateToken(kidless(OLD))).isFalse();
+        assertThat(retired.validateToken(kidless(NEW))).isFalse();
+        assertThat(unset.validateToken(kidless(OLD))).isFalse();
+    }
+
+    private static String kidless(String secret) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("role", "USER")
+                .setExpiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
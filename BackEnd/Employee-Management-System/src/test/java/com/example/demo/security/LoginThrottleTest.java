@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong(-5_000_000_000L);
+
+    @Test
+    void usernameBucketAllowsBurstThenRefills() {
+        // 3 attempts per user, one more every 20 seconds
+        LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), 64, 100, 600, 3, 3, nanos::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isZero();
+        }
+        assertThat(throttle.tryAcquire("ALICE", "10.0.0.2")).isEqualTo(20);
+        assertThat(throttle.tryAcquire("bob", "10.0.0.1")).isZero();
+
+        advance(19);
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isEqualTo(1);
+        advance(1);
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("alice", "10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void ipBucketRejectsBeforeTouchingUsernames() {
+        LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), 64, 2, 60, 2, 60, nanos::get);
+
+        assertThat(throttle.tryAcquire("a", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("b", "10.0.0.1")).isZero();
+        assertThat(throttle.tryAcquire("c", "10.0.0.1")).isPositive();
+        // the rejected attempt did not spend c's budget
+        assertThat(throttle.tryAcquire("c", "10.0.0.2")).isZero();
+        assertThat(throttle.tryAcquire("c", "10.0.0.3")).isZero();
+    }
+
+    private void advance(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.repository.PasswordResetTokenRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordResetTokenStoreTest {
+
+    @Test
+    void throttlesEachAddressOnItsOwn() {
+        PasswordResetTokenStore store = new PasswordResetTokenStore(mock(PasswordResetTokenRepository.class),
+                new SimpleMeterRegistry(), Duration.ofHours(1), 60_000, 100_000, 1, Duration.ofMinutes(5));
+
+        // far more addresses than the old 4096 hashed stripes: none may be charged for another
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(store.tryAcquire("user" + i + "@example.com")).isZero();
+        }
+        assertThat(store.tryAcquire(" User7@Example.com ")).isBetween(1L, 300L);
+    }
+}
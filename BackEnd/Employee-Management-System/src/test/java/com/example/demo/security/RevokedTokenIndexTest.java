@@ -0,0 +1,40 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class RevokedTokenIndexTest {
+
+    @Test
+    void containsExactlyTheRevokedIds() {
+        List<UUID> revoked = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            revoked.add(UUID.randomUUID());
+        }
+        RevokedTokenIndex index = RevokedTokenIndex.of(revoked, 0.01);
+
+        assertThat(index.size()).isEqualTo(10_000);
+        assertThat(revoked).allMatch(index::contains);
+        // Bloom false positives are confirmed against the sorted ids, so nothing else matches
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(index.contains(UUID.randomUUID())).isFalse();
+        }
+    }
+
+    @Test
+    void emptyAndDuplicateIds() {
+        UUID id = UUID.randomUUID();
+        assertThat(RevokedTokenIndex.EMPTY.contains(id)).isFalse();
+
+        RevokedTokenIndex index = RevokedTokenIndex.of(List.of(id, id, new UUID(Long.MIN_VALUE, -1)), 0.01);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.contains(id)).isTrue();
+        assertThat(index.contains(new UUID(Long.MIN_VALUE, -1))).isTrue();
+        assertThat(index.contains(new UUID(Long.MIN_VALUE, 0))).isFalse();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    @Test
+    void expiresKeysOnlyOnceTheirDeadlineHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 8, 0);
+        wheel.schedule("soon", 2_500);
+        wheel.schedule("later", 5_000);
+        // more than one turn away: shares a slot with earlier ticks until its own turn
+        wheel.schedule("next-turn", 11_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(2_999, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(3_000, expired::add);
+        assertThat(expired).containsExactly("soon");
+
+        wheel.advance(9_000, expired::add);
+        assertThat(expired).containsExactly("soon", "later");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(11_000, expired::add);
+        assertThat(expired).containsExactly("soon", "later", "next-turn");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterALongPauseAndNeverExpiresEarly() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, 4, 0);
+        wheel.schedule("past", -5_000);
+        wheel.schedule("a", 3_000);
+        wheel.schedule("b", 100_000);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(50_000, expired::add);
+        assertThat(expired).containsExactlyInAnyOrder("past", "a");
+
+        wheel.advance(99_999, expired::add);
+        assertThat(expired).hasSize(2);
+        wheel.advance(100_000, expired::add);
+        assertThat(expired).contains("b");
+    }
+}
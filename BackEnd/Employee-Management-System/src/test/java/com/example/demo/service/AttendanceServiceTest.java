@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.entity.Attendance;
+import com.example.demo.index.AttendanceBitmapIndex;
+import com.example.demo.repository.AttendanceRepository;
+import com.example.demo.repository.EmployeeRepository;
+
+class AttendanceServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private final EmployeeRepository employees = mock(EmployeeRepository.class);
+    private final AttendanceBitmapIndex bitmaps = mock(AttendanceBitmapIndex.class);
+    private final AttendanceService service = new AttendanceService(mock(AttendanceRepository.class), employees,
+            bitmaps, 366);
+
+    @Test
+    void marksTheBitmapsOnlyOnceTheTransactionCommits() {
+        when(employees.existsById(7L)).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.mark(new AttendanceDTO(7L, DAY, "absent"));
+            verifyNoInteractions(bitmaps);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(bitmaps).mark(7L, DAY, Attendance.ABSENT);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rejectsRangesLongerThanTheLimit() {
+        when(bitmaps.isReady()).thenReturn(true);
+        service.getEmployeeStats(7L, DAY.minusDays(365), DAY);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> service.getEmployeeStats(7L, DAY.minusDays(366), DAY));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> service.getDepartmentStats("R&D", LocalDate.MIN, DAY));
+    }
+}
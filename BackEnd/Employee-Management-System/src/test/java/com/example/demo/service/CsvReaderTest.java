@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsEscapesAndLineBreaks() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader(
+                "name,address\r\n\"Lovelace, Ada\",\"12 \"\"Main\"\" St\nLondon\"\r\n\r\nGrace,\n"));
+
+        assertThat(csv.next()).containsExactly("name", "address");
+        assertThat(csv.next()).containsExactly("Lovelace, Ada", "12 \"Main\" St\nLondon");
+        assertThat(csv.recordLine()).isEqualTo(2);
+        assertThat(csv.next()).containsExactly("Grace", "");
+        assertThat(csv.recordLine()).isEqualTo(5);
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void reportsWhereAnUnterminatedQuoteStarted() throws Exception {
+        CsvReader csv = new CsvReader(new StringReader("name\nAda\n\"Grace\nAlan\n"));
+
+        assertThat(csv.next()).isEqualTo(List.of("name"));
+        assertThat(csv.next()).isEqualTo(List.of("Ada"));
+        assertThatThrownBy(csv::next).isInstanceOf(CsvReader.MalformedCsvException.class)
+                .extracting(e -> ((CsvReader.MalformedCsvException) e).line()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.example.demo.entity.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sendsDueMailThroughLocalSmtp() throws Exception {
+        List<EmailOutbox> rows = List.of(row(1L, "a@example.com", 0), row(2L, "b@example.com", 0),
+                row(3L, "c@example.com", 0));
+        stubDue(rows);
+
+        dispatcher(ServerSetupTest.SMTP.getPort(), 8).dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received[0].getSubject()).isEqualTo("Password Reset Request");
+        assertThat(rows).allSatisfy(r -> {
+            assertThat(r.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+            assertThat(r.getSentAt()).isNotNull();
+            assertThat(r.getBody()).isNull();
+        });
+        verify(repository).saveAll(rows);
+        // three messages split across two workers: two SMTP sessions
+        assertThat(registry.get("mail.send").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(registry.get("mail.messages").tag("outcome", "sent").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesWithBackoffThenDeadLetters() {
+        EmailOutbox fresh = row(1L, "a@example.com", 0);
+        EmailOutbox lastTry = row(2L, "b@example.com", 2);
+        stubDue(List.of(fresh, lastTry));
+
+        // nothing listens on this port
+        dispatcher(ServerSetupTest.SMTP.getPort() + 1, 3).dispatch();
+
+        assertThat(fresh.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(fresh.getAttempts()).isEqualTo(1);
+        assertThat(fresh.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(fresh.getLastError()).isNotBlank();
+
+        assertThat(lastTry.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+        assertThat(lastTry.getAttempts()).isEqualTo(3);
+        assertThat(registry.get("mail.send").tag("outcome", "error").timers()).isNotEmpty();
+        assertThat(registry.get("mail.messages").tag("outcome", "failed").counter().count()).isEqualTo(1);
+        assertThat(registry.get("mail.messages").tag("outcome", "dead").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countsAnUnexpectedWorkerFailureAsAnAttempt() {
+        EmailOutbox row = row(1L, "a@example.com", 0);
+        stubDue(List.of(row));
+        JavaMailSender sender = mock(JavaMailSender.class);
+        doThrow(new IllegalStateException("No session")).when(sender).send(any(SimpleMailMessage[].class));
+
+        dispatcher(sender, 3).dispatch();
+
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(row.getLastError()).isEqualTo("No session");
+        assertThat(row.getBody()).isEqualTo("Hello");
+        verify(repository).saveAll(List.of(row));
+    }
+
+    @Test
+    void skipsRowsClaimedByAnotherDispatcher() {
+        EmailOutbox row = row(1L, "a@example.com", 0);
+        when(repository.findDue(any(), any())).thenReturn(List.of(row));
+        when(repository.claim(anyLong(), any())).thenReturn(0);
+
+        dispatcher(ServerSetupTest.SMTP.getPort(), 8).dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+    }
+
+    private void stubDue(List<EmailOutbox> rows) {
+        when(repository.findDue(any(), any())).thenReturn(new ArrayList<>(rows));
+        when(repository.claim(anyLong(), any())).thenReturn(1);
+    }
+
+    private EmailOutboxDispatcher dispatcher(int port, int maxAttempts) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        return dispatcher(sender, maxAttempts);
+    }
+
+    private EmailOutboxDispatcher dispatcher(JavaMailSender sender, int maxAttempts) {
+        return new EmailOutboxDispatcher(repository, sender, registry, new SimpleAsyncTaskExecutor(), 50, 2, maxAttempts, 1000, 60000,
+                "system@employeems.com");
+    }
+
+    private static EmailOutbox row(Long id, String to, int attempts) {
+        EmailOutbox row = new EmailOutbox();
+        row.setId(id);
+        row.setRecipient(to);
+        row.setSubject("Password Reset Request");
+        row.setBody("Hello");
+        row.setAttempts(attempts);
+        return row;
+    }
+}
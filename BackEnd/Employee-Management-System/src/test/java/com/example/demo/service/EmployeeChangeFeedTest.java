@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.dto.EmployeeDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class EmployeeChangeFeedTest {
+
+    private EmployeeChangeFeed feed;
+
+    // Keeps the text of each event instead of writing it to a response
+    private static final class Recorder extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        // When set, sends block until it opens, like a client that stopped reading
+        volatile CountDownLatch stall;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            events.add(text.toString());
+        }
+
+        List<String> named(String type) {
+            return events.stream().filter(e -> e.contains("event:" + type + "\n")).toList();
+        }
+
+        String lastId() {
+            String last = events.get(events.size() - 1);
+            int start = last.indexOf("id:") + 3;
+            return last.substring(start, last.indexOf('\n', start));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // The background flusher is effectively off; the tests call flush() themselves
+        feed = new EmployeeChangeFeed(JsonMapper.builder().build(), new SimpleMeterRegistry(), 8, 10,
+                3_600_000, Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofSeconds(30), Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void sendsOnlyTheLatestChangePerEmployee() {
+        Recorder client = subscribe(null);
+
+        feed.updated(employee(1, "Ada"));
+        feed.updated(employee(2, "Grace"));
+        feed.updated(employee(1, "Ada Lovelace"));
+        feed.flush();
+
+        assertThat(client.named("updated")).hasSize(2);
+        assertThat(client.named("updated").get(0)).contains("\"Grace\"");
+        assertThat(client.named("updated").get(1)).contains("\"Ada Lovelace\"");
+        assertThat(client.lastId()).endsWith("-3");
+    }
+
+    @Test
+    void resumesAfterLastEventIdOrAsksForAReset() {
+        Recorder first = subscribe(null);
+        feed.deleted(1L);
+        feed.deleted(2L);
+        feed.flush();
+        String afterFirst = first.named("deleted").get(0).substring(3, first.named("deleted").get(0).indexOf('\n'));
+
+        Recorder resumed = subscribe(afterFirst);
+        feed.flush();
+        assertThat(resumed.named("deleted")).singleElement().asString().contains("\"id\":2");
+
+        assertThat(subscribe("otherrun-1").named("reset")).hasSize(1);
+
+        for (long id = 3; id < 20; id++) {
+            feed.deleted(id);
+        }
+        assertThat(subscribe(afterFirst).named("reset")).hasSize(1);
+    }
+
+    @Test
+    void publishesATransactionOnlyAfterCommitAndMergesItsChanges() {
+        Recorder client = subscribe(null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            feed.created(employee(1, "Ada"));
+            feed.updated(employee(1, "Ada Lovelace"));
+            feed.deleted(2L);
+            feed.flush();
+            assertThat(client.events).hasSize(1); // only the connect comment
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        feed.flush();
+
+        assertThat(client.named("created")).singleElement().asString().contains("\"Ada Lovelace\"");
+        assertThat(client.named("updated")).isEmpty();
+        assertThat(client.named("deleted")).hasSize(1);
+    }
+
+    @Test
+    void collapsesALargeTransactionIntoOneReset() {
+        Recorder client = subscribe(null);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (long id = 1; id <= 3; id++) {
+                feed.deleted(id);
+            }
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(feed);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        feed.flush();
+
+        assertThat(client.named("deleted")).isEmpty();
+        assertThat(client.named("reset")).hasSize(1);
+    }
+
+    @Test
+    void endsAStreamOnceItsTokenExpiresOrIsRevoked() throws Exception {
+        AtomicBoolean revoked = new AtomicBoolean();
+        feed.subscribe(null, new Recorder(), Long.MAX_VALUE, revoked::get);
+        feed.subscribe(null, new Recorder(), System.currentTimeMillis() + 50, () -> false);
+        feed.flush();
+        assertThat(feed.subscriberCount()).isEqualTo(2);
+
+        Thread.sleep(60);
+        feed.flush();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        revoked.set(true);
+        feed.flush();
+        assertThat(feed.subscriberCount()).isZero();
+    }
+
+    @Test
+    void aStalledClientIsSkippedThenDroppedWithoutHoldingUpTheOthers() throws Exception {
+        ExecutorService senders = Executors.newFixedThreadPool(2);
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(JsonMapper.builder().build(), new SimpleMeterRegistry(), 8,
+                10, 3_600_000, Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofSeconds(1), senders);
+        Recorder slow = new Recorder();
+        Recorder fast = new Recorder();
+        try {
+            feed.subscribe(null, slow);
+            feed.subscribe(null, fast);
+            slow.stall = new CountDownLatch(1);
+
+            feed.updated(employee(1, "Ada"));
+            feed.flush();
+            feed.updated(employee(2, "Grace"));
+            // a client still busy with its previous batch is skipped and caught up by a later flush
+            await(feed, () -> fast.named("updated").size() == 2);
+            assertThat(feed.subscriberCount()).isEqualTo(2);
+
+            Thread.sleep(1100);
+            feed.flush();
+            assertThat(feed.subscriberCount()).isEqualTo(1);
+        } finally {
+            slow.stall.countDown();
+            feed.shutdown();
+            senders.shutdownNow();
+        }
+        assertThat(slow.named("updated")).hasSizeLessThanOrEqualTo(1);
+    }
+
+    private static void await(EmployeeChangeFeed feed, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            feed.flush();
+            Thread.sleep(10);
+        }
+    }
+
+    private Recorder subscribe(String lastEventId) {
+        Recorder recorder = new Recorder();
+        feed.subscribe(lastEventId, recorder);
+        return recorder;
+    }
+
+    private static EmployeeDTO employee(long id, String name) {
+        return new EmployeeDTO(id, name, null, "R&D", null, null, null, null, 0L);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class EmployeeExportServiceTest {
+
+    @TempDir
+    Path photos;
+
+    @Test
+    void quotesTextThatASpreadsheetWouldRunAsAFormula() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE employee (id BIGINT, name VARCHAR(255), email VARCHAR(255),"
+                + " department VARCHAR(255), phone VARCHAR(255), address VARCHAR(255), marital_status VARCHAR(255),"
+                + " education VARCHAR(255), company_role VARCHAR(255), salary DOUBLE, username VARCHAR(255),"
+                + " joined_date DATE, photo_ref VARCHAR(64), photo_content_type VARCHAR(255))");
+        jdbc.update("INSERT INTO employee (id, name, department, phone, company_role, salary) VALUES"
+                + " (1, '=HYPERLINK(\"http://x\",\"Ada\")', '-Ops', '+44 20 7946 0000', '@admin', -5)");
+
+        EmployeeExportService export = new EmployeeExportService(jdbc, new PhotoStorageService(photos.toString(), 1024),
+                JsonMapper.builder().build(), 100);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.export(export.prepare(EmployeeExportService.CSV, null, null, false), out);
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\r\n")[1];
+        assertThat(row).startsWith("1,\"'=HYPERLINK(\"\"http://x\"\",\"\"Ada\"\")\",,'-Ops,'+44 20 7946 0000,,,,'@admin,-5.0,");
+    }
+}
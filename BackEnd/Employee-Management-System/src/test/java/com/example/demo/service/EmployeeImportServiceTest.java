@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ImportReport;
+import com.example.demo.index.EmployeeSearchIndex;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.UserRepository;
+
+import tools.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeImportServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EmployeeRepository employees;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+    @Autowired
+    private EmployeeStatsService stats;
+    @Autowired
+    private EmployeeChangeFeed changeFeed;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private EmployeeImportService importer;
+
+    // Two rows per chunk, so a short file spans several transactions
+    @BeforeEach
+    void setUp() {
+        importer = new EmployeeImportService(jdbcTemplate, transactionTemplate, employees, users, searchIndex, stats,
+                changeFeed, objectMapper, passwordEncoder, 2, 100);
+    }
+
+    @Test
+    void reportsBadRowsAndAnUnterminatedQuote() throws Exception {
+        ImportReport report = importer.importCsv(new StringReader("name,department,salary\n"
+                + "Ignatius Valid,R&D,100\n"
+                + "Ignatius Salary,R&D,lots\n"
+                + "Ignatius Second,Ops,\n"
+                + "\"Ignatius Open,Ops,1\n"
+                + "Ignatius Swallowed,Ops,1\n"));
+
+        assertThat(report.getTotal()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::line).containsExactly(3, 5);
+        assertThat(searchIndex.search("ignatius")).hasSize(2);
+    }
+
+    @Test
+    void indexesCommittedChunksWhenTheUploadBreaksOff() {
+        Reader aborted = new Reader() {
+            private final Reader body = new StringReader("name\nOctavia One\nOctavia Two\nOctavia Three\n");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int n = body.read(buffer, offset, length);
+                if (n == -1) {
+                    throw new IOException("Connection reset");
+                }
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThatIOException().isThrownBy(() -> importer.importCsv(aborted)).withMessage("Connection reset");
+        // The first chunk committed; the third row was still pending and is not written
+        assertThat(searchIndex.search("octavia")).hasSize(2);
+        assertThat(employees.findByNameContainingIgnoreCase("octavia")).hasSize(2);
+    }
+}
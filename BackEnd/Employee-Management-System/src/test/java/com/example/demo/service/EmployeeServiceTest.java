@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.AttendanceDTO;
+import com.example.demo.dto.BulkEmployeeRequest;
+import com.example.demo.entity.Employee;
+import com.example.demo.index.EmployeeSearchIndex;
+import com.example.demo.repository.AttendanceRepository;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeServiceTest {
+
+    @Autowired
+    private EmployeeService service;
+    @Autowired
+    private EmployeeSearchIndex searchIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EmployeeRepository employees;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private AttendanceRepository attendance;
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Test
+    void indexAndStatsOnlySeeCommittedEmployees() {
+        long before = service.getStats(30).getTotalEmployees();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.add(employee("Zebulon Rollback", "Rollbacks"));
+            status.setRollbackOnly();
+        });
+        assertThat(searchIndex.search("zebulon")).isEmpty();
+        assertThat(service.getStats(30).getTotalEmployees()).isEqualTo(before);
+
+        Employee saved = service.add(employee("Zebulon Commit", "Rollbacks"));
+        assertThat(searchIndex.search("zebulon")).containsExactly(saved.getId());
+        assertThat(service.getStats(30).getTotalEmployees()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void bulkUpdateChangesOnlyTheSelectedEmployees() {
+        Employee ada = service.add(employee("Bulk Ada", "Bulk Pricing", 100.0));
+        Employee grace = service.add(employee("Bulk Grace", "Bulk Pricing", 200.0));
+        Employee alan = service.add(employee("Bulk Alan", "Bulk Pricing", 300.0));
+
+        BulkEmployeeRequest byIds = new BulkEmployeeRequest();
+        byIds.setIds(List.of(ada.getId(), grace.getId(), ada.getId()));
+        byIds.setNewDepartment("Bulk Billing");
+        byIds.setCompanyRole("Analyst");
+        assertThat(service.bulkUpdate(byIds)).isEqualTo(2);
+
+        Employee movedAda = employees.findById(ada.getId()).orElseThrow();
+        assertThat(movedAda.getDepartment()).isEqualTo("Bulk Billing");
+        assertThat(movedAda.getCompanyRole()).isEqualTo("Analyst");
+        assertThat(movedAda.getVersion()).isEqualTo(ada.getVersion() + 1);
+        assertThat(employees.findById(alan.getId()).orElseThrow().getDepartment()).isEqualTo("Bulk Pricing");
+        assertThat(searchIndex.departmentMembers("Bulk Billing")).containsExactlyInAnyOrder(ada.getId(),
+                grace.getId());
+
+        // Salary-only, by department: a relative raise that still bumps every version
+        BulkEmployeeRequest raise = new BulkEmployeeRequest();
+        raise.setDepartment("Bulk Billing");
+        raise.setSalaryPercent(10.0);
+        assertThat(service.bulkUpdate(raise)).isEqualTo(2);
+
+        Employee raisedGrace = employees.findById(grace.getId()).orElseThrow();
+        assertThat(raisedGrace.getSalary()).isEqualTo(220.0);
+        assertThat(raisedGrace.getVersion()).isEqualTo(grace.getVersion() + 2);
+        assertThat(employees.findById(alan.getId()).orElseThrow().getSalary()).isEqualTo(300.0);
+    }
+
+    @Test
+    void bulkRequestsMustSelectOneWayWithinTheLimit() {
+        BulkEmployeeRequest both = new BulkEmployeeRequest();
+        both.setIds(List.of(1L));
+        both.setDepartment("Ops");
+        both.setSalary(1.0);
+        assertThatIllegalArgumentException().isThrownBy(() -> service.bulkUpdate(both));
+
+        BulkEmployeeRequest tooMany = new BulkEmployeeRequest();
+        tooMany.setIds(Collections.nCopies(EmployeeService.MAX_BULK_IDS + 1, 1L));
+        tooMany.setSalary(1.0);
+        assertThatIllegalArgumentException().isThrownBy(() -> service.bulkDelete(tooMany));
+
+        BulkEmployeeRequest nothing = new BulkEmployeeRequest();
+        nothing.setDepartment("Ops");
+        assertThatIllegalArgumentException().isThrownBy(() -> service.bulkUpdate(nothing));
+    }
+
+    @Test
+    void bulkDeleteRemovesEmployeesLoginsAndAttendance() {
+        Employee leaving = employee("Bulk Leaver", "Bulk Offboarding", null);
+        leaving.setUsername("bulk.leaver");
+        leaving.setEmail("bulk.leaver@example.com");
+        long id = service.add(leaving).getId();
+        long staying = service.add(employee("Bulk Stayer", "Bulk Retained", null)).getId();
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        attendanceService.mark(new AttendanceDTO(id, day, "PRESENT"));
+
+        BulkEmployeeRequest request = new BulkEmployeeRequest();
+        request.setDepartment("Bulk Offboarding");
+        assertThat(service.bulkDelete(request)).isEqualTo(1);
+
+        assertThat(employees.existsById(id)).isFalse();
+        assertThat(employees.existsById(staying)).isTrue();
+        assertThat(users.findByUsername("bulk.leaver")).isEmpty();
+        assertThat(attendance.findRecords(id, day, day)).isEmpty();
+        assertThat(searchIndex.search("leaver")).isEmpty();
+    }
+
+    private static Employee employee(String name, String department, Double salary) {
+        Employee employee = employee(name, department);
+        employee.setSalary(salary);
+        return employee;
+    }
+
+    private static Employee employee(String name, String department) {
+        Employee employee = new Employee();
+        employee.setName(name);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
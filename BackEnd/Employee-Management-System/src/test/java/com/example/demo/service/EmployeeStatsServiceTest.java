@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.repository.EmployeeRepository;
+
+class EmployeeStatsServiceTest {
+
+    @Test
+    void keepsUpdatesMadeWhileAReconcileAggregates() {
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        EmployeeStatsService stats = new EmployeeStatsService(repository, 365);
+        when(repository.countByDepartment()).thenAnswer(invocation -> {
+            stats.onAdded("Ops", LocalDate.now());
+            return List.<Object[]>of(new Object[] { "R&D", 2L });
+        });
+        when(repository.countByJoinedDateSince(any())).thenReturn(List.of());
+
+        stats.reconcile();
+
+        assertThat(stats.snapshot(30).getTotalEmployees()).isEqualTo(3);
+        assertThat(stats.snapshot(30).getDepartmentCounts()).containsEntry("R&D", 2L).containsEntry("Ops", 1L);
+        assertThat(stats.snapshot(30).getRecentHires()).isEqualTo(1);
+    }
+
+    @Test
+    void countsEmployeesWithoutADepartmentTogetherWithUnassigned() {
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        EmployeeStatsService stats = new EmployeeStatsService(repository, 365);
+        when(repository.countByDepartment()).thenReturn(List.of(
+                new Object[] { EmployeeStatsService.UNASSIGNED, 2L }, new Object[] { null, 3L }));
+        when(repository.countByJoinedDateSince(any())).thenReturn(List.of());
+
+        stats.reconcile();
+
+        assertThat(stats.snapshot(30).getDepartmentCounts()).containsEntry(EmployeeStatsService.UNASSIGNED, 5L);
+        assertThat(stats.snapshot(30).getTotalEmployees()).isEqualTo(5);
+    }
+}
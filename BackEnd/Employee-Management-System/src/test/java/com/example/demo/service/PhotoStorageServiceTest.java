@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PhotoStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void storesTheSniffedTypeWhateverTheClientClaims() throws Exception {
+        PhotoStorageService storage = new PhotoStorageService(dir.toString(), 1 << 20);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        PhotoStorageService.StoredPhoto stored = storage.storeDataUrl(
+                "data:text/html;base64," + Base64.getEncoder().encodeToString(png.toByteArray()));
+
+        assertThat(stored.contentType()).isEqualTo("image/png");
+        assertThat(storage.exists(stored.hash())).isTrue();
+    }
+
+    @Test
+    void rejectsHtmlAndSvgAndLeavesNothingBehind() throws Exception {
+        PhotoStorageService storage = new PhotoStorageService(dir.toString(), 1 << 20);
+        String html = "<html><script>alert(1)</script></html>";
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>";
+
+        assertThatThrownBy(() -> storage.storeDataUrl("data:image/png;base64,"
+                + Base64.getEncoder().encodeToString(html.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(PhotoStorageService.UnsupportedPhotoException.class);
+        assertThatThrownBy(() -> storage.store(new ByteArrayInputStream(svg.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(PhotoStorageService.UnsupportedPhotoException.class);
+
+        try (var files = Files.walk(dir)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+class ThumbnailServiceTest {
+
+    @Test
+    void cropsTheCentreSquareOntoAnOpaqueCanvas() {
+        BufferedImage wide = new BufferedImage(300, 100, BufferedImage.TYPE_INT_ARGB);
+        // transparent everywhere except a red centre third
+        for (int y = 0; y < 100; y++) {
+            for (int x = 100; x < 200; x++) {
+                wide.setRGB(x, y, 0xFFFF0000);
+            }
+        }
+
+        BufferedImage square = ThumbnailService.cropSquare(wide);
+
+        assertThat(square.getWidth()).isEqualTo(100);
+        assertThat(square.getHeight()).isEqualTo(100);
+        assertThat(square.getColorModel().hasAlpha()).isFalse();
+        assertThat(square.getRGB(0, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+        assertThat(square.getRGB(99, 99) & 0xFFFFFF).isEqualTo(0xFF0000);
+    }
+
+    @Test
+    void scalesDownToTheExactSizeButNeverUp() {
+        BufferedImage square = new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB);
+
+        assertThat(ThumbnailService.scale(square, 48).getWidth()).isEqualTo(48);
+        assertThat(ThumbnailService.scale(square, 512).getHeight()).isEqualTo(512);
+        assertThat(ThumbnailService.scale(new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB), 128).getWidth())
+                .isEqualTo(40);
+    }
+}
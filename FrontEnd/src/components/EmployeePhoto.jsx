@@ -0,0 +1,42 @@
+import React, { useEffect, useState } from 'react';
+import api from '../services/api';
+
+// Photos are served from /employees/{id}/photo behind JWT auth, so they are
+// fetched through the api client and shown via an object URL.
+// With a size (48, 128 or 512) the square thumbnail is used instead; its URL carries
+// the photoRef, so the browser caches it until the photo changes. If the thumbnail
+// is unavailable (busy server, unreadable image) the original is shown.
+const EmployeePhoto = ({ id, photoRef, size, alt, className, fallback = null, onClick }) => {
+    const [src, setSrc] = useState(null);
+
+    useEffect(() => {
+        if (!photoRef) {
+            setSrc(null);
+            return;
+        }
+        let objectUrl;
+        let cancelled = false;
+        const original = () => api.get(`/employees/${id}/photo`, { responseType: 'blob' });
+        const request = size
+            ? api.get(`/employees/${id}/photo/${size}`, { params: { v: photoRef }, responseType: 'blob' })
+                .catch(original)
+            : original();
+        request
+            .then((response) => {
+                if (!cancelled) {
+                    objectUrl = URL.createObjectURL(response.data);
+                    setSrc(objectUrl);
+                }
+            })
+            .catch(() => setSrc(null));
+        return () => {
+            cancelled = true;
+            if (objectUrl) URL.revokeObjectURL(objectUrl);
+        };
+    }, [id, photoRef, size]);
+
+    if (!src) return fallback;
+    return <img src={src} alt={alt} className={className} onClick={onClick} />;
+};
+
+export default EmployeePhoto;
@@ -20,8 +20,9 @@ export const AuthProvider = ({ children }) => {
     const login = async (username, password) => {
         try {
             const response = await api.post('/auth/login', { username, password });
-            const { token, role } = response.data;
+            const { token, refreshToken, role } = response.data;
             sessionStorage.setItem('token', token);
+            sessionStorage.setItem('refreshToken', refreshToken);
             sessionStorage.setItem('role', role);
             sessionStorage.setItem('username', username);
             setUser({ token, role, username });
@@ -33,7 +34,13 @@ export const AuthProvider = ({ children }) => {
     };
 
     const logout = () => {
+        const refreshToken = sessionStorage.getItem('refreshToken');
+        if (refreshToken) {
+            // Revokes the session server-side; the local sign-out does not wait for it
+            api.post('/auth/logout', { refreshToken }).catch(() => {});
+        }
         sessionStorage.removeItem('token');
+        sessionStorage.removeItem('refreshToken');
         sessionStorage.removeItem('role');
         sessionStorage.removeItem('username');
         setUser(null);
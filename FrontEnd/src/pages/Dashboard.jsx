@@ -13,14 +13,13 @@ const Dashboard = () => {
     useEffect(() => {
         const fetchStats = async () => {
             try {
-                const response = await api.get('/employees?size=1000'); // Fetch enough for stats for now
-                const employees = response.data.content || [];
-                const departments = new Set(employees.map(e => e.department).filter(Boolean)).size;
+                // Counters are maintained server-side, so this stays cheap at any headcount
+                const response = await api.get('/employees/stats?windowDays=30');
 
                 setStats({
-                    totalEmployees: employees.length,
-                    departments: departments,
-                    recentHires: employees.length // Simplified for now
+                    totalEmployees: response.data.totalEmployees,
+                    departments: response.data.departments,
+                    recentHires: response.data.recentHires
                 });
             } catch (error) {
                 console.error('Error fetching stats:', error);
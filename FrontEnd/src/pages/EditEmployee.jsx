@@ -22,6 +22,8 @@ const EditEmployee = () => {
     });
     const [loading, setLoading] = useState(true);
     const [imagePreview, setImagePreview] = useState(null);
+    // version of the record the form was loaded from; sent back as If-Match
+    const [etag, setEtag] = useState(null);
 
     useEffect(() => {
         fetchEmployee();
@@ -30,9 +32,11 @@ const EditEmployee = () => {
     const fetchEmployee = async () => {
         try {
             const response = await api.get(`/employees/${id}`);
-            setFormData(response.data);
-            if (response.data.photo) {
-                setImagePreview(response.data.photo);
+            setEtag(response.headers.etag);
+            setFormData({ ...response.data, photo: '' });
+            if (response.data.photoRef) {
+                const photo = await api.get(`/employees/${id}/photo`, { responseType: 'blob' });
+                setImagePreview(URL.createObjectURL(photo.data));
             }
         } catch (error) {
             console.error('Error fetching employee:', error);
@@ -64,13 +68,17 @@ const EditEmployee = () => {
         e.preventDefault();
         setLoading(true);
         try {
-            await api.put(`/employees/${id}`, formData);
+            await api.put(`/employees/${id}`, formData, { headers: { 'If-Match': etag } });
             toast.success('Employee updated successfully!');
             navigate('/employees');
         } catch (error) {
             console.error('Error updating employee:', error);
             if (error.response && error.response.status === 403) {
                 toast.error('Permission denied: Only Admins can edit employees');
+            } else if (error.response && error.response.status === 412) {
+                toast.error('Someone else updated this employee. Reloaded the latest version.');
+                fetchEmployee();
+                return;
             } else {
                 toast.error('Failed to update employee');
             }
@@ -3,6 +3,7 @@ import { useParams, useNavigate } from 'react-router-dom';
 import api from '../services/api';
 import { useAuth } from '../context/AuthContext';
 import { toast } from 'react-toastify';
+import EmployeePhoto from '../components/EmployeePhoto';
 import { ArrowLeft, Mail, Phone, MapPin, Briefcase, User, Building, Calendar, Edit, Trash2, Award, X } from 'lucide-react';
 
 const EmployeeDetails = () => {
@@ -77,16 +78,21 @@ const EmployeeDetails = () => {
                         {/* Profile Image */}
                         <div
                             className="w-40 h-40 rounded-3xl border-4 border-white dark:border-gray-800 shadow-2xl overflow-hidden bg-white dark:bg-gray-700 flex-shrink-0 cursor-pointer hover:opacity-90 transition-opacity group"
-                            onClick={() => employee.photo && setIsImageModalOpen(true)}
+                            onClick={() => employee.photoRef && setIsImageModalOpen(true)}
                         >
-                            {employee.photo ? (
-                                <img src={employee.photo} alt={employee.name} className="w-full h-full object-cover" />
-                            ) : (
-                                <div className="w-full h-full flex items-center justify-center bg-gray-100 dark:bg-gray-700 text-gray-400 dark:text-gray-500">
-                                    <User size={64} />
-                                </div>
-                            )}
-                            {employee.photo && (
+                            <EmployeePhoto
+                                id={employee.id}
+                                photoRef={employee.photoRef}
+                                size={512}
+                                alt={employee.name}
+                                className="w-full h-full object-cover"
+                                fallback={
+                                    <div className="w-full h-full flex items-center justify-center bg-gray-100 dark:bg-gray-700 text-gray-400 dark:text-gray-500">
+                                        <User size={64} />
+                                    </div>
+                                }
+                            />
+                            {employee.photoRef && (
                                 <div className="absolute inset-0 bg-black/20 opacity-0 group-hover:opacity-100 transition-opacity flex items-center justify-center text-white">
                                     <span className="text-xs font-medium bg-black/50 px-2 py-1 rounded-full backdrop-blur-sm">View</span>
                                 </div>
@@ -289,8 +295,9 @@ const EmployeeDetails = () => {
                         >
                             <X size={24} />
                         </button>
-                        <img
-                            src={employee.photo}
+                        <EmployeePhoto
+                            id={employee.id}
+                            photoRef={employee.photoRef}
                             alt={employee.name}
                             className="max-w-full max-h-full object-contain rounded-lg shadow-2xl"
                             onClick={(e) => e.stopPropagation()}
@@ -1,9 +1,11 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import api from '../services/api';
+import { subscribeToChanges } from '../services/changes';
 import { useAuth } from '../context/AuthContext';
 import { Search, Trash2, Edit, Plus, User, MapPin, Briefcase } from 'lucide-react';
 import { Link, useLocation } from 'react-router-dom';
 import { toast } from 'react-toastify';
+import EmployeePhoto from '../components/EmployeePhoto';
 
 const EmployeeList = () => {
     const { user } = useAuth();
@@ -12,6 +14,8 @@ const EmployeeList = () => {
     const [searchTerm, setSearchTerm] = useState('');
     const [currentPage, setCurrentPage] = useState(0);
     const [totalPages, setTotalPages] = useState(0);
+    const [cursors, setCursors] = useState({ next: null, prev: null });
+    const [newCount, setNewCount] = useState(0);
     const pageSize = 9;
 
     const location = useLocation();
@@ -19,32 +23,56 @@ const EmployeeList = () => {
     useEffect(() => {
         // Debounce search to avoid too many API calls
         const delayDebounceFn = setTimeout(() => {
-            fetchEmployees(0); // Reset to page 0 on new search
+            fetchEmployees(null, 0); // Reset to first page on new search
         }, 500);
 
         return () => clearTimeout(delayDebounceFn);
     }, [searchTerm]);
 
     useEffect(() => {
-        fetchEmployees(currentPage);
-    }, [currentPage, location.search]);
+        fetchEmployees(null, 0);
+    }, [location.search]);
+
+    // Changes made anywhere are patched into the visible page instead of refetching it.
+    // New hires may belong on another page, so they are only counted until the user reloads.
+    const refetch = useRef(null);
+    refetch.current = () => fetchEmployees(null, 0);
+    useEffect(() => subscribeToChanges((type, change) => {
+        if (type === 'updated') {
+            setEmployees((rows) => rows.map((emp) => (emp.id === change.id ? { ...emp, ...change.employee } : emp)));
+        } else if (type === 'deleted') {
+            setEmployees((rows) => rows.filter((emp) => emp.id !== change.id));
+        } else if (type === 'created') {
+            setNewCount((count) => count + 1);
+        } else if (type === 'reset') {
+            refetch.current();
+        }
+    }), []);
 
-    const fetchEmployees = async (page) => {
+    // Keyset pages: the server hands back next/prev cursors, so deep pages cost the same as the first.
+    // The total is only requested for the first page.
+    const fetchEmployees = async (cursor, page) => {
         try {
             const searchParams = new URLSearchParams(location.search);
             const sort = searchParams.get('sort');
 
-            let url = `/employees?page=${page}&size=${pageSize}`;
+            let url = `/employees/scroll?size=${pageSize}`;
             if (sort) {
                 url += `&sort=${sort}`;
             }
             if (searchTerm) {
-                url += `&search=${searchTerm}`;
+                url += `&search=${encodeURIComponent(searchTerm)}`;
             }
+            url += cursor ? `&cursor=${cursor}` : '&count=exact';
 
             const response = await api.get(url);
             setEmployees(response.data.content || []);
-            setTotalPages(response.data.totalPages);
+            setNewCount(0);
+            setCursors({ next: response.data.nextCursor || null, prev: response.data.prevCursor || null });
+            setCurrentPage(page);
+            if (response.data.totalElements !== undefined) {
+                setTotalPages(Math.ceil(response.data.totalElements / pageSize));
+            }
         } catch (error) {
             console.error('Error fetching employees:', error);
             toast.error('Failed to load employees');
@@ -74,8 +102,10 @@ const EmployeeList = () => {
     const filteredEmployees = employees;
 
     const handlePageChange = (newPage) => {
-        if (newPage >= 0 && newPage < totalPages) {
-            setCurrentPage(newPage);
+        if (newPage > currentPage && cursors.next) {
+            fetchEmployees(cursors.next, newPage);
+        } else if (newPage < currentPage && cursors.prev) {
+            fetchEmployees(cursors.prev, newPage);
         }
     };
 
@@ -112,6 +142,15 @@ const EmployeeList = () => {
                 </div>
             </div>
 
+            {newCount > 0 && (
+                <button
+                    onClick={() => fetchEmployees(null, 0)}
+                    className="w-full mb-6 py-2.5 rounded-xl bg-blue-50 dark:bg-blue-900/30 text-blue-600 dark:text-blue-300 text-sm font-medium hover:bg-blue-100 dark:hover:bg-blue-900/50 transition-colors"
+                >
+                    {newCount === 1 ? '1 new employee' : `${newCount} new employees`} — show
+                </button>
+            )}
+
             {filteredEmployees.length === 0 ? (
                 <div className="text-center py-20 bg-white dark:bg-gray-800 rounded-2xl border border-gray-100 dark:border-gray-700 border-dashed transition-colors duration-300">
                     <div className="w-16 h-16 bg-gray-50 dark:bg-gray-700 rounded-full flex items-center justify-center mx-auto mb-4">
@@ -126,13 +165,18 @@ const EmployeeList = () => {
                         <div key={emp.id} className="bg-white dark:bg-gray-800 rounded-2xl border border-gray-100 dark:border-gray-700 p-6 hover:shadow-xl hover:shadow-gray-200/50 dark:hover:shadow-black/30 transition-all duration-300 group">
                             <div className="flex justify-between items-start mb-6">
                                 <Link to={`/employee/${emp.id}`} className="w-16 h-16 rounded-2xl overflow-hidden bg-gray-100 dark:bg-gray-700 shadow-inner cursor-pointer hover:opacity-90 transition-opacity">
-                                    {emp.photo ? (
-                                        <img src={emp.photo} alt={emp.name} className="w-full h-full object-cover" />
-                                    ) : (
-                                        <div className="w-full h-full flex items-center justify-center bg-gradient-to-br from-blue-100 to-purple-100 dark:from-blue-900 dark:to-purple-900 text-blue-600 dark:text-blue-300 font-bold text-xl">
-                                            {emp.name?.charAt(0)}
-                                        </div>
-                                    )}
+                                    <EmployeePhoto
+                                        id={emp.id}
+                                        photoRef={emp.photoRef}
+                                        size={128}
+                                        alt={emp.name}
+                                        className="w-full h-full object-cover"
+                                        fallback={
+                                            <div className="w-full h-full flex items-center justify-center bg-gradient-to-br from-blue-100 to-purple-100 dark:from-blue-900 dark:to-purple-900 text-blue-600 dark:text-blue-300 font-bold text-xl">
+                                                {emp.name?.charAt(0)}
+                                            </div>
+                                        }
+                                    />
                                 </Link>
                                 {user?.role === 'ADMIN' && (
                                     <div className="flex gap-2 opacity-0 group-hover:opacity-100 transition-opacity">
@@ -179,7 +223,7 @@ const EmployeeList = () => {
                 <div className="flex justify-center items-center mt-8 gap-4">
                     <button
                         onClick={() => handlePageChange(currentPage - 1)}
-                        disabled={currentPage === 0}
+                        disabled={!cursors.prev}
                         className="px-4 py-2 rounded-lg border border-gray-200 dark:border-gray-700 bg-white dark:bg-gray-800 text-gray-600 dark:text-gray-300 disabled:opacity-50 disabled:cursor-not-allowed hover:bg-gray-50 dark:hover:bg-gray-700 transition-colors"
                     >
                         Previous
@@ -189,7 +233,7 @@ const EmployeeList = () => {
                     </span>
                     <button
                         onClick={() => handlePageChange(currentPage + 1)}
-                        disabled={currentPage === totalPages - 1}
+                        disabled={!cursors.next}
                         className="px-4 py-2 rounded-lg border border-gray-200 dark:border-gray-700 bg-white dark:bg-gray-800 text-gray-600 dark:text-gray-300 disabled:opacity-50 disabled:cursor-not-allowed hover:bg-gray-50 dark:hover:bg-gray-700 transition-colors"
                     >
                         Next
@@ -23,7 +23,11 @@ const Login = () => {
             await login(username, password);
             navigate('/');
         } catch (err) {
-            setError('Invalid username or password');
+            if (err.response?.status === 429) {
+                setError(err.response.data || 'Too many login attempts, try again later');
+            } else {
+                setError('Invalid username or password');
+            }
         }
     };
 
@@ -20,13 +20,49 @@ api.interceptors.request.use(
     }
 );
 
+// One refresh at a time: a used refresh token is rejected (and ends the session),
+// so concurrent 401s all wait for the same rotation
+let refreshing = null;
+
+export const refreshTokens = () => {
+    if (!refreshing) {
+        const refreshToken = sessionStorage.getItem('refreshToken');
+        refreshing = axios
+            .post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken })
+            .then(({ data }) => {
+                sessionStorage.setItem('token', data.token);
+                sessionStorage.setItem('refreshToken', data.refreshToken);
+                return data.token;
+            })
+            .finally(() => {
+                refreshing = null;
+            });
+    }
+    return refreshing;
+};
+
 api.interceptors.response.use(
     (response) => response,
-    (error) => {
+    async (error) => {
+        const original = error.config;
         if (error.response && error.response.status === 401) {
-            sessionStorage.removeItem('token');
-            if (window.location.pathname !== '/login') {
-                window.location.href = '/login';
+            const isAuthCall = original && original.url && original.url.startsWith('/auth/');
+            if (!isAuthCall && !original._retried && sessionStorage.getItem('refreshToken')) {
+                original._retried = true;
+                try {
+                    const token = await refreshTokens();
+                    original.headers.Authorization = `Bearer ${token}`;
+                    return api(original);
+                } catch {
+                    // fall through to the login page
+                }
+            }
+            if (!isAuthCall) {
+                sessionStorage.removeItem('token');
+                sessionStorage.removeItem('refreshToken');
+                if (window.location.pathname !== '/login') {
+                    window.location.href = '/login';
+                }
             }
         }
         return Promise.reject(error);
@@ -0,0 +1,82 @@
+import api, { refreshTokens } from './api';
+
+// Follows /employees/changes (Server-Sent Events) and calls onEvent(type, data) for each
+// created / updated / deleted / reset event. EventSource cannot send the bearer token, so
+// the stream is read with fetch; after a drop it reconnects with Last-Event-ID and the
+// server replays what was missed, or sends a reset. Returns a function that stops it.
+export const subscribeToChanges = (onEvent) => {
+    const controller = new AbortController();
+    let lastEventId = null;
+    let retryMs = 3000;
+
+    const dispatch = (block) => {
+        let type = 'message';
+        let data = '';
+        for (const line of block.split('\n')) {
+            if (line.startsWith(':')) continue; // comment / heartbeat
+            const colon = line.indexOf(':');
+            const field = colon < 0 ? line : line.slice(0, colon);
+            const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+            if (field === 'event') type = value;
+            else if (field === 'data') data += (data ? '\n' : '') + value;
+            else if (field === 'id') lastEventId = value;
+            else if (field === 'retry' && /^\d+$/.test(value)) retryMs = Number(value);
+        }
+        if (data) {
+            onEvent(type, JSON.parse(data));
+        }
+    };
+
+    const connect = async () => {
+        const headers = { Accept: 'text/event-stream' };
+        const token = sessionStorage.getItem('token');
+        if (token) headers.Authorization = `Bearer ${token}`;
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+        const response = await fetch(`${api.defaults.baseURL}/employees/changes`, {
+            headers,
+            signal: controller.signal,
+        });
+        if (response.status === 401) {
+            // Stream ended with the access token: reconnect with a fresh one, or give up with the session
+            try {
+                if (!sessionStorage.getItem('refreshToken')) throw new Error('No session');
+                await refreshTokens();
+            } catch {
+                controller.abort();
+            }
+            return;
+        }
+        if (!response.ok) {
+            throw new Error(`Change stream failed: ${response.status}`);
+        }
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+            const { value, done } = await reader.read();
+            if (done) return;
+            buffer += value.replace(/\r\n?/g, '\n');
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                dispatch(buffer.slice(0, end));
+                buffer = buffer.slice(end + 2);
+            }
+        }
+    };
+
+    const run = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                await connect();
+            } catch (error) {
+                if (controller.signal.aborted) return;
+                console.warn('Employee change stream interrupted:', error.message);
+            }
+            await new Promise((resolve) => setTimeout(resolve, retryMs));
+        }
+    };
+
+    run();
+    return () => controller.abort();
+};